@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Cost of creating an Anchor with and without inflating its lazy
+ * properties. An Anchor is not part of a scene here, so it is created
+ * on the benchmark thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class AnchorBenchmark {
+
+    @Benchmark public Anchor newAnchor() {
+        return new Anchor(Pos.CENTER, 8, 8);
+    }
+
+    @Benchmark public Anchor newAnchorInflated(final Blackhole BLACKHOLE) {
+        Anchor anchor = new Anchor(Pos.CENTER, 8, 8);
+        BLACKHOLE.consume(anchor.positionProperty());
+        BLACKHOLE.consume(anchor.activeProperty());
+        return anchor;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static eu.hansolo.fx.anchorselector.FxBenchmarks.BATCH;
+
+
+/**
+ * Cost of creating an AnchorSelector with its default render mode, once
+ * for a selector that is never shown and once including the first layout
+ * pass. Run with -prof gc to see the allocated bytes per selector.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ConstructionBenchmark {
+    private AnchorSelector[] selectors;
+
+
+    @Setup public void setup() {
+        FxBenchmarks.start();
+        // Keeps the selectors reachable so the construction cannot be eliminated
+        selectors = new AnchorSelector[BATCH];
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public AnchorSelector[] newAnchorSelector() {
+        FxBenchmarks.runAndWait(() -> {
+            for (int i = 0 ; i < BATCH ; i++) { selectors[i] = new AnchorSelector(); }
+        });
+        return selectors;
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public AnchorSelector[] newAnchorSelectorAndLayout() {
+        FxBenchmarks.runAndWait(() -> {
+            for (int i = 0 ; i < BATCH ; i++) {
+                AnchorSelector selector = new AnchorSelector();
+                selector.resize(64, 64);
+                selector.layout();
+                selectors[i] = selector;
+            }
+        });
+        return selectors;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import com.sun.javafx.application.PlatformImpl;
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Runs benchmark code on the FX application thread of the headless
+ * platform. Handing over to the FX thread costs more than most of the
+ * measured operations, so every invocation runs a batch of BATCH
+ * operations and the benchmarks are annotated with
+ * OperationsPerInvocation(BATCH).
+ */
+final class FxBenchmarks {
+    static final            int     BATCH = 1000;
+    private static volatile boolean started;
+
+
+    private FxBenchmarks() {}
+
+
+    static synchronized void start() {
+        if (started) { return; }
+        CountDownLatch latch = new CountDownLatch(1);
+        PlatformImpl.startup(latch::countDown);
+        await(latch);
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    static void runAndWait(final Runnable TASK) {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch             latch = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                TASK.run();
+            } catch (Throwable t) {
+                error.set(t);
+            } finally {
+                latch.countDown();
+            }
+        });
+        await(latch);
+        if (null != error.get()) { throw new IllegalStateException(error.get()); }
+    }
+
+    private static void await(final CountDownLatch LATCH) {
+        try {
+            LATCH.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static eu.hansolo.fx.anchorselector.FxBenchmarks.BATCH;
+
+
+/**
+ * Cost of a layout pass after the size of an AnchorSelector changed,
+ * which resizes the background and all anchors (resize() and
+ * resizeAnchors()). The size alternates by one pixel so every pass has
+ * to do the work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ResizeBenchmark {
+    @Param({ "32", "64", "128", "512" })
+    private double         size;
+    private AnchorSelector selector;
+
+
+    @Setup public void setup() {
+        FxBenchmarks.start();
+        FxBenchmarks.runAndWait(() -> selector = new AnchorSelector());
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void resize() {
+        FxBenchmarks.runAndWait(() -> {
+            for (int i = 0 ; i < BATCH ; i++) {
+                double newSize = 0 == (i & 1) ? size : size + 1;
+                selector.resize(newSize, newSize);
+                selector.layout();
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Time to the first laid out scene with AnchorSelectors in a fresh VM,
+ * which includes loading the user agent stylesheet. Every fork measures
+ * one cold start, once with the binary stylesheet that is generated by
+ * the build and once with a copy of the css that has no binary stylesheet
+ * next to it, so only the AnchorSelector stylesheet is parsed. The
+ * platform is started before the measurement.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Thread)
+public class StartupBenchmark {
+    private static final int    SELECTORS = 20;
+    private              Path   directory;
+    private              Path   css;
+    private              String textStylesheet;
+
+
+    @Setup public void setup() throws IOException {
+        FxBenchmarks.start();
+        directory = Files.createTempDirectory("anchorselector");
+        css       = directory.resolve("anchorselector.css");
+        try (InputStream in = AnchorSelector.class.getResourceAsStream("anchorselector.css")) { Files.copy(in, css); }
+        textStylesheet = css.toUri().toString();
+    }
+
+    @TearDown(Level.Trial) public void tearDown() throws IOException {
+        // The directory can only be deleted once it is empty
+        Files.deleteIfExists(css);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark public FlowPane firstScene() { return showFirstScene(null); }
+
+    @Benchmark public FlowPane firstSceneWithTextStylesheet() { return showFirstScene(textStylesheet); }
+
+
+    private FlowPane showFirstScene(final String STYLESHEET) {
+        FlowPane pane = new FlowPane();
+        FxBenchmarks.runAndWait(() -> {
+            for (int i = 0 ; i < SELECTORS ; i++) {
+                pane.getChildren().add(null == STYLESHEET ? new AnchorSelector() : new AnchorSelector() {
+                    @Override public String getUserAgentStylesheet() { return STYLESHEET; }
+                });
+            }
+            new Scene(pane, 640, 480);
+            pane.applyCss();
+            pane.layout();
+        });
+        return pane;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Cost per selection of saving and restoring the selections of 100,000
+ * models with the AnchorStateCodec into a direct buffer. Every restore
+ * changes all models, which have one listener each. Run with -prof gc to
+ * see that nothing is allocated per model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class StateCodecBenchmark {
+    private static final int                       MODELS = 100_000;
+    private              List<AnchorSelectorModel> models;
+    private              ByteBuffer                buffer;
+    private              ByteBuffer                restoredBuffer;
+    private              boolean                   restored;
+
+
+    @Setup public void setup() {
+        models         = new ArrayList<>(MODELS);
+        buffer         = ByteBuffer.allocateDirect(MODELS * AnchorStateCodec.SELECTION_BYTES);
+        restoredBuffer = ByteBuffer.allocateDirect(MODELS * AnchorStateCodec.SELECTION_BYTES);
+        for (int i = 0 ; i < MODELS ; i++) {
+            AnchorSelectorModel model = new AnchorSelectorModel();
+            model.addSelectionListener((m, oldPos, newPos) -> {});
+            models.add(model);
+            buffer.put((byte) (i % Anchor.POSITIONS.length));
+            restoredBuffer.put((byte) ((i + 1) % Anchor.POSITIONS.length));
+        }
+    }
+
+    @Benchmark @OperationsPerInvocation(MODELS) public ByteBuffer exportModels() {
+        buffer.clear();
+        AnchorStateCodec.exportModels(models, buffer);
+        return buffer;
+    }
+
+    @Benchmark @OperationsPerInvocation(MODELS) public List<AnchorSelectorModel> importModels() {
+        // Alternates between two states, so every model changes
+        ByteBuffer source = restored ? buffer : restoredBuffer;
+        restored = !restored;
+        source.clear();
+        AnchorStateCodec.importModels(source, models);
+        return models;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static eu.hansolo.fx.anchorselector.FxBenchmarks.BATCH;
+
+
+/**
+ * Cost of a color change that goes through the inline style (setStyle())
+ * including the CSS pass that applies it. The colors alternate so every
+ * update changes the style.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class StyleBenchmark {
+    private static final Color[]        ANCHOR_COLORS = { Color.PURPLE, Color.ORANGE };
+    private              AnchorSelector selector;
+
+
+    @Setup public void setup() {
+        FxBenchmarks.start();
+        FxBenchmarks.runAndWait(() -> {
+            selector = new AnchorSelector();
+            new Scene(new StackPane(selector));
+            selector.applyCss();
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void setAnchorColor() {
+        FxBenchmarks.runAndWait(() -> {
+            for (int i = 0 ; i < BATCH ; i++) {
+                selector.setAnchorColor(ANCHOR_COLORS[i & 1]);
+                selector.applyCss();
+            }
+        });
+    }
+
+    @Benchmark @OperationsPerInvocation(BATCH) public void setColors() {
+        FxBenchmarks.runAndWait(() -> {
+            for (int i = 0 ; i < BATCH ; i++) {
+                selector.setColors(Color.BLACK, ANCHOR_COLORS[i & 1], Color.WHITE);
+                selector.applyCss();
+            }
+        });
+    }
+}
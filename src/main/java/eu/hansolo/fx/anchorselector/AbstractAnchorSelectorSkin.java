@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.SelectionMode;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.control.Skin;
+import javafx.scene.control.SkinBase;
+import javafx.scene.input.MouseEvent;
+
+
+/**
+ * Base of the built-in AnchorSelector skins. It creates the content on the
+ * first layout pass, centers it as a square in the content area of the
+ * control and maps the mouse input to the cells of the 3x3 grid. The mouse
+ * input is received by one handler on the control that is shared by all
+ * selectors, so the content does not need its own event handling.
+ * The control calls the skin directly on selection and color changes, so
+ * the built-in skins do not need listeners on its properties.
+ */
+abstract class AbstractAnchorSelectorSkin extends SkinBase<AnchorSelector> {
+    // Delegates to the current skin of the control the event was sent to
+    private static final EventHandler<MouseEvent> MOUSE_HANDLER = EVT -> {
+        Skin<?> skin = ((AnchorSelector) EVT.getSource()).getSkin();
+        if (skin instanceof AbstractAnchorSelectorSkin) { ((AbstractAnchorSelectorSkin) skin).handleMouseEvent(EVT); }
+    };
+    private       Node                     content;
+    private       double                   x;
+    private       double                   y;
+    private       double                   width;
+    private       double                   height;
+    private       boolean                  positionDirty;
+    double                                 size;
+    double                                 renderScale;
+    boolean                                sizeDirty;
+    boolean                                selectionDirty;
+    int                                    hoveredIndex;
+    // State the anchors under the mouse are set to while dragging in SelectionMode.MULTIPLE
+    private       boolean                  dragSelects;
+
+
+    // ******************** Constructors **************************************
+    AbstractAnchorSelectorSkin(final AnchorSelector CONTROL) {
+        super(CONTROL);
+        hoveredIndex = -1;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Creates the node that shows the selector, it is called on the first
+     * layout pass. The mouse input to it bubbles up to the control.
+     */
+    abstract Node createContent();
+
+    /**
+     * Called when the size or the render scale changed.
+     */
+    abstract void resize();
+
+    /**
+     * Called on a layout pass after the selection changed.
+     */
+    abstract void layoutSelection();
+
+    /**
+     * Called when the selection state of the anchors in the given mask
+     * changed, the anchors that are shown as selected are returned by
+     * AnchorSelector.getSelectionMask().
+     */
+    abstract void selectionChanged(int CHANGED_MASK);
+
+    abstract void hoverChanged(int PREVIOUS_INDEX, int INDEX);
+
+    abstract void colorsChanged();
+
+    void colorModeChanged() {}
+
+    void animatedChanged() {}
+
+    /**
+     * Removes the mouse handler, the content stays as it is.
+     */
+    void disconnect() {
+        if (null != content) { getSkinnable().removeEventHandler(MouseEvent.ANY, MOUSE_HANDLER); }
+    }
+
+    boolean isContentCreated() { return null != content; }
+
+    @Override protected void layoutChildren(final double X, final double Y, final double WIDTH, final double HEIGHT) {
+        if (null == content) {
+            content = createContent();
+            // Added here and not in the constructor, a replaced skin removes the same handler when it is disposed
+            getSkinnable().addEventHandler(MouseEvent.ANY, MOUSE_HANDLER);
+            getChildren().setAll(content);
+            // The CSS pass of this pulse is already done, without this the first frame would show unstyled shapes
+            if (null != getSkinnable().getScene()) { content.applyCss(); }
+        }
+        if (WIDTH <= 0 || HEIGHT <= 0) { return; }
+
+        double newSize = WIDTH < HEIGHT ? WIDTH : HEIGHT;
+        if (Double.compare(newSize, size) != 0) {
+            size      = newSize;
+            sizeDirty = true;
+        }
+        double newScale = RenderScale.of(getSkinnable());
+        if (Double.compare(newScale, renderScale) != 0) {
+            renderScale = newScale;
+            sizeDirty   = true;
+        }
+        if (Double.compare(X, x) != 0 || Double.compare(Y, y) != 0 || Double.compare(WIDTH, width) != 0 || Double.compare(HEIGHT, height) != 0) {
+            x             = X;
+            y             = Y;
+            width         = WIDTH;
+            height        = HEIGHT;
+            positionDirty = true;
+        }
+
+        if (sizeDirty) {
+            resize();
+        } else if (selectionDirty) {
+            layoutSelection();
+        }
+        if (sizeDirty || positionDirty) { content.relocate(x + (width - size) * 0.5, y + (height - size) * 0.5); }
+
+        sizeDirty      = false;
+        selectionDirty = false;
+        positionDirty  = false;
+    }
+
+    @Override public void dispose() {
+        disconnect();
+        if (null != content) { getChildren().remove(content); }
+        super.dispose();
+    }
+
+    private void handleMouseEvent(final MouseEvent EVT) {
+        final EventType<? extends MouseEvent> TYPE = EVT.getEventType();
+        if (MouseEvent.MOUSE_MOVED == TYPE) {
+            hoverAnchor(cellAt(EVT));
+        } else if (MouseEvent.MOUSE_PRESSED == TYPE || MouseEvent.MOUSE_DRAGGED == TYPE) {
+            int index = cellAt(EVT);
+            // While dragging only a change of the cell under the mouse leads to a new selection
+            if (MouseEvent.MOUSE_DRAGGED == TYPE && index == hoveredIndex) { return; }
+            hoverAnchor(index);
+            if (index > -1) { select(index, MouseEvent.MOUSE_PRESSED == TYPE); }
+        } else if (MouseEvent.MOUSE_RELEASED == TYPE) {
+            hoverAnchor(cellAt(EVT));
+        } else if (MouseEvent.MOUSE_EXITED == TYPE && !EVT.isPrimaryButtonDown()) {
+            hoverAnchor(-1);
+        }
+    }
+
+    private void select(final int INDEX, final boolean PRESSED) {
+        AnchorSelector control = getSkinnable();
+        if (SelectionMode.MULTIPLE == control.getSelectionMode()) {
+            if (PRESSED) { dragSelects = 0 == (control.getSelectedAnchors() & 1 << INDEX); }
+            control.setAnchorSelected(INDEX, dragSelects);
+        } else {
+            control.select(INDEX);
+        }
+    }
+
+    private void hoverAnchor(final int INDEX) {
+        if (INDEX == hoveredIndex) { return; }
+        int previousIndex = hoveredIndex;
+        hoveredIndex = INDEX;
+        hoverChanged(previousIndex, INDEX);
+    }
+
+    /**
+     * Returns the index of the cell in the 3x3 grid under the mouse or -1
+     * if it is outside of the content.
+     */
+    private int cellAt(final MouseEvent EVT) {
+        double x = EVT.getX() - content.getLayoutX();
+        double y = EVT.getY() - content.getLayoutY();
+        if (size <= 0 || x < 0 || y < 0 || x >= size || y >= size) { return -1; }
+        int column = (int) (x * 3 / size);
+        int row    = (int) (y * 3 / size);
+        return row * 3 + column;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.beans.value.WritableValue;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.TilePane;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Applies the selected anchor of an AnchorSelector as alignment to many
+ * targets. The targets are the alignment properties of nodes like
+ * StackPane, HBox, VBox, FlowPane, TilePane, GridPane, Labeled and
+ * TextField or any other WritableValue of Pos.
+ * The alignment is applied at most once per pulse at the beginning of the
+ * pulse, so all targets are laid out in the same layout pass no matter how
+ * often the selection changed. Targets that already have the alignment are
+ * skipped and applying does not allocate anything per target.
+ * Targets have to be added and removed on the FX application thread, the
+ * selection can also change on other threads.
+ */
+public class AlignmentApplier {
+    private final AnchorSelector                        selector;
+    private final AnchorSelectorModel.SelectionListener modelListener;
+    private final AtomicBoolean                         applyPending;
+    private final Runnable                              applyTask;
+    private final ArrayList<WritableValue<Pos>>         targets;
+
+
+    // ******************** Constructors **************************************
+    public AlignmentApplier(final AnchorSelector SELECTOR) {
+        if (null == SELECTOR) { throw new IllegalArgumentException("Selector cannot be null"); }
+        selector      = SELECTOR;
+        modelListener = (model, oldPos, newPos) -> invalidate();
+        applyPending  = new AtomicBoolean(false);
+        applyTask     = () -> {
+            applyPending.set(false);
+            apply();
+        };
+        targets       = new ArrayList<>();
+        selector.getModel().addSelectionListener(modelListener);
+    }
+
+
+    // ******************** Methods *******************************************
+    public AnchorSelector getSelector() { return selector; }
+
+    /**
+     * Adds the alignment of the given node, throws an IllegalArgumentException
+     * if the node has no alignment.
+     */
+    public void add(final Node NODE) { add(alignmentOf(NODE)); }
+    public void add(final WritableValue<Pos> TARGET) {
+        if (null == TARGET) { throw new IllegalArgumentException("Target cannot be null"); }
+        targets.add(TARGET);
+        invalidate();
+    }
+
+    public void addAll(final Collection<? extends Node> NODES) {
+        if (null == NODES) { throw new IllegalArgumentException("Nodes cannot be null"); }
+        targets.ensureCapacity(targets.size() + NODES.size());
+        for (Node node : NODES) { targets.add(alignmentOf(node)); }
+        invalidate();
+    }
+
+    public void remove(final Node NODE) { remove(alignmentOf(NODE)); }
+    public void remove(final WritableValue<Pos> TARGET) {
+        // The alignment properties are compared by identity, a node returns the same property every time
+        for (int i = targets.size() - 1 ; i >= 0 ; i--) {
+            if (targets.get(i) == TARGET) {
+                targets.remove(i);
+                return;
+            }
+        }
+    }
+
+    public int getTargetCount() { return targets.size(); }
+
+    /**
+     * Applies the selected anchor to all targets right away instead of on
+     * the next pulse, e.g. before the targets are shown for the first time.
+     */
+    public void apply() {
+        Pos pos = selector.getModel().getSelectedAnchor();
+        for (int i = 0, n = targets.size() ; i < n ; i++) {
+            WritableValue<Pos> target = targets.get(i);
+            if (target.getValue() != pos) { target.setValue(pos); }
+        }
+    }
+
+    /**
+     * Stops following the selector, the targets keep their alignment.
+     */
+    public void dispose() {
+        selector.getModel().removeSelectionListener(modelListener);
+        targets.clear();
+    }
+
+    private void invalidate() {
+        if (applyPending.compareAndSet(false, true)) { PulseScheduler.schedule(applyTask); }
+    }
+
+    private static WritableValue<Pos> alignmentOf(final Node NODE) {
+        if (NODE instanceof StackPane) { return ((StackPane) NODE).alignmentProperty(); }
+        if (NODE instanceof HBox)      { return ((HBox) NODE).alignmentProperty(); }
+        if (NODE instanceof VBox)      { return ((VBox) NODE).alignmentProperty(); }
+        if (NODE instanceof FlowPane)  { return ((FlowPane) NODE).alignmentProperty(); }
+        if (NODE instanceof TilePane)  { return ((TilePane) NODE).alignmentProperty(); }
+        if (NODE instanceof GridPane)  { return ((GridPane) NODE).alignmentProperty(); }
+        if (NODE instanceof Labeled)   { return ((Labeled) NODE).alignmentProperty(); }
+        if (NODE instanceof TextField) { return ((TextField) NODE).alignmentProperty(); }
+        throw new IllegalArgumentException(null == NODE ? "Node cannot be null" : "Node has no alignment: " + NODE.getClass().getName());
+    }
+}
@@ -26,7 +26,10 @@ import javafx.scene.shape.Rectangle;
 
 
 public class Anchor extends Rectangle {
-    private static final PseudoClass         ACTIVE_PSEUDO_CLASS = PseudoClass.getPseudoClass("active");
+    static final         Pos[]               POSITIONS           = { Pos.TOP_LEFT, Pos.TOP_CENTER, Pos.TOP_RIGHT,
+                                                                     Pos.CENTER_LEFT, Pos.CENTER, Pos.CENTER_RIGHT,
+                                                                     Pos.BOTTOM_LEFT, Pos.BOTTOM_CENTER, Pos.BOTTOM_RIGHT };
+    static final         PseudoClass         ACTIVE_PSEUDO_CLASS = PseudoClass.getPseudoClass("active");
     private              Pos                 _position;
     private              ObjectProperty<Pos> position;
     private              boolean             _active;
@@ -96,9 +99,31 @@ public class Anchor extends Rectangle {
         return active;
     }
 
-    private boolean isValidPos(final Pos POS) {
-        return (Pos.TOP_LEFT == POS || Pos.TOP_CENTER == POS || Pos.TOP_RIGHT == POS ||
-                Pos.CENTER_LEFT == POS || Pos.CENTER == POS || Pos.CENTER_RIGHT == POS ||
-                Pos.BOTTOM_RIGHT == POS || Pos.BOTTOM_CENTER == POS || Pos.BOTTOM_LEFT == POS);
+    /**
+     * The anchors are mouse transparent, so the AnchorSelector sets the
+     * :hover pseudo class of the anchor under the mouse itself.
+     */
+    void setHovered(final boolean HOVERED) { setHover(HOVERED); }
+
+    private boolean isValidPos(final Pos POS) { return indexOf(POS) > -1; }
+
+    /**
+     * Returns the row-major index of the given position in the 3x3 grid
+     * (TOP_LEFT = 0 ... BOTTOM_RIGHT = 8) or -1 for baseline positions and null.
+     */
+    static int indexOf(final Pos POS) {
+        if (null == POS) { return -1; }
+        switch(POS) {
+            case TOP_LEFT     : return 0;
+            case TOP_CENTER   : return 1;
+            case TOP_RIGHT    : return 2;
+            case CENTER_LEFT  : return 3;
+            case CENTER       : return 4;
+            case CENTER_RIGHT : return 5;
+            case BOTTOM_LEFT  : return 6;
+            case BOTTOM_CENTER: return 7;
+            case BOTTOM_RIGHT : return 8;
+            default           : return -1;
+        }
     }
 }
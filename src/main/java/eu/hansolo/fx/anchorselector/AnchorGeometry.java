@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import java.util.Arrays;
+
+
+/**
+ * Shared, bounded cache of the layout of an AnchorSelector per size and
+ * render scale. A table is a flat double[] that holds the background and
+ * the unselected and selected bounds of all anchors, so it serves every
+ * selection and laying out a selector is a table lookup. All values are
+ * snapped to device pixels of the given render scale. The tables are kept
+ * in an open addressed table of primitive keys, so a lookup does not
+ * allocate, and once it is full the oldest table is dropped.
+ * Used on the FX application thread only.
+ */
+final class AnchorGeometry {
+    static final         int        BACKGROUND_XY   = 0;
+    static final         int        BACKGROUND_SIZE = 1;
+    static final         int        ANCHOR_X        = 0;
+    static final         int        ANCHOR_Y        = 1;
+    static final         int        ANCHOR_SIZE     = 2;
+    static final         int        MAX_TABLES      = 64;
+    private static final int        FIRST_ANCHOR    = 2;
+    private static final int        STRIDE          = 3;
+    private static final int        LENGTH          = FIRST_ANCHOR + Anchor.POSITIONS.length * 2 * STRIDE;
+    private static final int        SLOTS           = MAX_TABLES * 2;
+    private static final int        MASK            = SLOTS - 1;
+    private static final int        SHIFT           = Long.SIZE - Integer.numberOfTrailingZeros(SLOTS);
+    private static final long[]     KEYS            = new long[SLOTS];
+    private static final double[][] VALUES          = new double[SLOTS][];
+    private static final long[]     INSERTED        = new long[MAX_TABLES];
+    private static       int        oldest;
+    private static       int        count;
+
+
+    private AnchorGeometry() {}
+
+
+    /**
+     * Returns the shared table for the given size and render scale, the
+     * returned array must not be modified.
+     */
+    static double[] of(final double SIZE, final double SCALE) {
+        // Sizes and scales are float precise enough to share one long key
+        long key  = (long) Float.floatToIntBits((float) SIZE) << 32 | Float.floatToIntBits((float) SCALE) & 0xFFFFFFFFL;
+        int  slot = find(key);
+        if (null == VALUES[slot]) {
+            if (MAX_TABLES == count) {
+                remove(find(INSERTED[oldest]));
+                oldest = (oldest + 1) % MAX_TABLES;
+                count--;
+                slot   = find(key);
+            }
+            KEYS[slot]   = key;
+            VALUES[slot] = compute(SIZE, SCALE);
+            INSERTED[(oldest + count) % MAX_TABLES] = key;
+            count++;
+        }
+        return VALUES[slot];
+    }
+
+    /**
+     * Returns the index of the x value of the given anchor in a table,
+     * followed by the y value and the size.
+     */
+    static int anchor(final int INDEX, final boolean SELECTED) {
+        return FIRST_ANCHOR + (INDEX * 2 + (SELECTED ? 1 : 0)) * STRIDE;
+    }
+
+    static int getTableCount() { return count; }
+
+    static void clear() {
+        Arrays.fill(VALUES, null);
+        oldest = 0;
+        count  = 0;
+    }
+
+    private static int home(final long KEY) { return (int) (KEY * 0x9E3779B97F4A7C15L >>> SHIFT); }
+
+    /**
+     * Returns the slot of the given key or the free slot it belongs to,
+     * the table is at most half full so the probing always ends.
+     */
+    private static int find(final long KEY) {
+        int slot = home(KEY);
+        while (null != VALUES[slot] && KEYS[slot] != KEY) { slot = (slot + 1) & MASK; }
+        return slot;
+    }
+
+    // Moves the following keys of the probe sequence back so that no gap remains
+    private static void remove(final int SLOT) {
+        int gap  = SLOT;
+        int slot = SLOT;
+        VALUES[gap] = null;
+        while (null != VALUES[slot = (slot + 1) & MASK]) {
+            if (((slot - home(KEYS[slot])) & MASK) >= ((slot - gap) & MASK)) {
+                KEYS[gap]    = KEYS[slot];
+                VALUES[gap]  = VALUES[slot];
+                VALUES[slot] = null;
+                gap          = slot;
+            }
+        }
+    }
+
+    private static double[] compute(final double SIZE, final double SCALE) {
+        double[] table          = new double[LENGTH];
+        double   backgroundSize = snap(SIZE * AnchorPainter.BACKGROUND_SIZE_FACTOR, SCALE);
+        table[BACKGROUND_XY]    = snap((SIZE - backgroundSize) * 0.5, SCALE);
+        table[BACKGROUND_SIZE]  = backgroundSize;
+
+        double anchorSize         = snap(SIZE * AnchorPainter.ANCHOR_SIZE_FACTOR, SCALE);
+        double selectedAnchorSize = snap(SIZE * AnchorPainter.SELECTED_ANCHOR_SIZE_FACTOR, SCALE);
+        double inset              = SIZE * AnchorPainter.INSET_FACTOR;
+        for (int i = 0 ; i < Anchor.POSITIONS.length ; i++) {
+            int offset = anchor(i, false);
+            table[offset + ANCHOR_X]    = snap(AnchorPainter.anchorOffset(SIZE, i % 3, anchorSize, inset), SCALE);
+            table[offset + ANCHOR_Y]    = snap(AnchorPainter.anchorOffset(SIZE, i / 3, anchorSize, inset), SCALE);
+            table[offset + ANCHOR_SIZE] = anchorSize;
+
+            offset = anchor(i, true);
+            table[offset + ANCHOR_X]    = snap(AnchorPainter.anchorOffset(SIZE, i % 3, selectedAnchorSize, 0), SCALE);
+            table[offset + ANCHOR_Y]    = snap(AnchorPainter.anchorOffset(SIZE, i / 3, selectedAnchorSize, 0), SCALE);
+            table[offset + ANCHOR_SIZE] = selectedAnchorSize;
+        }
+        return table;
+    }
+
+    private static double snap(final double VALUE, final double SCALE) { return Math.round(VALUE * SCALE) / SCALE; }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Shared LRU cache of the rendered states of AnchorSelectors in
+ * RenderMode.IMAGE. An image is rendered once per combination of size,
+ * render scale, colors, selected anchors and hovered anchor and is shared
+ * by all selectors that look the same, so the memory is bounded by the
+ * size of the cache and not by the number of selectors.
+ * The cache is used on the FX application thread, the statistics can be
+ * read from any thread.
+ */
+public final class AnchorImageCache {
+    public  static final int                     DEFAULT_MAX_SIZE = 256;
+    private static final AtomicLong              HITS             = new AtomicLong();
+    private static final AtomicLong              MISSES           = new AtomicLong();
+    private static final AtomicLong              EVICTIONS        = new AtomicLong();
+    private static final Key                     LOOKUP_KEY       = new Key();
+    private static final Map<Key, WritableImage> IMAGES           = new LinkedHashMap<Key, WritableImage>(64, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<Key, WritableImage> ELDEST) {
+            if (size() <= maxSize) { return false; }
+            EVICTIONS.incrementAndGet();
+            return true;
+        }
+    };
+    private static volatile int                  maxSize          = DEFAULT_MAX_SIZE;
+    private static          Canvas               canvas;
+
+
+    private AnchorImageCache() {}
+
+
+    public static int getMaxSize() { return maxSize; }
+    public static void setMaxSize(final int MAX_SIZE) {
+        if (MAX_SIZE < 1) { throw new IllegalArgumentException("Max size must be at least 1"); }
+        maxSize = MAX_SIZE;
+        trim();
+    }
+
+    public static int getSize() { return IMAGES.size(); }
+
+    public static long getHitCount() { return HITS.get(); }
+
+    public static long getMissCount() { return MISSES.get(); }
+
+    public static long getEvictionCount() { return EVICTIONS.get(); }
+
+    public static void resetStatistics() {
+        HITS.set(0);
+        MISSES.set(0);
+        EVICTIONS.set(0);
+    }
+
+    public static void clear() { IMAGES.clear(); }
+
+    static WritableImage get(final double SIZE, final double SCALE, final Color BACKGROUND_COLOR, final Color ANCHOR_COLOR,
+                             final Color SELECTED_ANCHOR_COLOR, final int SELECTION_MASK, final int HOVERED_INDEX) {
+        LOOKUP_KEY.set(SIZE, SCALE, AnchorStateCodec.toArgb(BACKGROUND_COLOR), AnchorStateCodec.toArgb(ANCHOR_COLOR),
+                       AnchorStateCodec.toArgb(SELECTED_ANCHOR_COLOR), SELECTION_MASK, HOVERED_INDEX);
+        WritableImage image = IMAGES.get(LOOKUP_KEY);
+        if (null != image) {
+            HITS.incrementAndGet();
+            return image;
+        }
+        MISSES.incrementAndGet();
+        image = render(SIZE, SCALE, BACKGROUND_COLOR, ANCHOR_COLOR, SELECTED_ANCHOR_COLOR, SELECTION_MASK, HOVERED_INDEX);
+        IMAGES.put(LOOKUP_KEY.copy(), image);
+        return image;
+    }
+
+    private static WritableImage render(final double SIZE, final double SCALE, final Color BACKGROUND_COLOR, final Color ANCHOR_COLOR,
+                                        final Color SELECTED_ANCHOR_COLOR, final int SELECTION_MASK, final int HOVERED_INDEX) {
+        if (null == canvas) { canvas = new Canvas(); }
+        canvas.setWidth(SIZE);
+        canvas.setHeight(SIZE);
+        AnchorPainter.paint(canvas.getGraphicsContext2D(), SIZE, BACKGROUND_COLOR, ANCHOR_COLOR, SELECTED_ANCHOR_COLOR, SELECTION_MASK, HOVERED_INDEX);
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(SCALE, SCALE));
+        int pixels = (int) Math.ceil(SIZE * SCALE);
+        return canvas.snapshot(parameters, new WritableImage(pixels, pixels));
+    }
+
+    private static void trim() {
+        // Shrinking the max size only evicts on the next put, so remove the eldest entries here
+        int excess = IMAGES.size() - maxSize;
+        for (Iterator<Key> iterator = IMAGES.keySet().iterator() ; excess > 0 && iterator.hasNext() ; excess--) {
+            iterator.next();
+            iterator.remove();
+            EVICTIONS.incrementAndGet();
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Key {
+        private double size;
+        private double scale;
+        private int    backgroundColor;
+        private int    anchorColor;
+        private int    selectedAnchorColor;
+        private int    selectionMask;
+        private int    hoveredIndex;
+
+        void set(final double SIZE, final double SCALE, final int BACKGROUND_COLOR, final int ANCHOR_COLOR, final int SELECTED_ANCHOR_COLOR,
+                 final int SELECTION_MASK, final int HOVERED_INDEX) {
+            size                = SIZE;
+            scale               = SCALE;
+            backgroundColor     = BACKGROUND_COLOR;
+            anchorColor         = ANCHOR_COLOR;
+            selectedAnchorColor = SELECTED_ANCHOR_COLOR;
+            selectionMask       = SELECTION_MASK;
+            hoveredIndex        = HOVERED_INDEX;
+        }
+
+        Key copy() {
+            Key key = new Key();
+            key.set(size, scale, backgroundColor, anchorColor, selectedAnchorColor, selectionMask, hoveredIndex);
+            return key;
+        }
+
+        @Override public boolean equals(final Object OBJECT) {
+            if (this == OBJECT) { return true; }
+            if (!(OBJECT instanceof Key)) { return false; }
+            Key key = (Key) OBJECT;
+            return Double.compare(size, key.size) == 0 && Double.compare(scale, key.scale) == 0 &&
+                   backgroundColor == key.backgroundColor && anchorColor == key.anchorColor && selectedAnchorColor == key.selectedAnchorColor &&
+                   selectionMask == key.selectionMask && hoveredIndex == key.hoveredIndex;
+        }
+
+        @Override public int hashCode() {
+            int result = Double.hashCode(size);
+            result = 31 * result + Double.hashCode(scale);
+            result = 31 * result + backgroundColor;
+            result = 31 * result + anchorColor;
+            result = 31 * result + selectedAnchorColor;
+            result = 31 * result + selectionMask;
+            result = 31 * result + hoveredIndex;
+            return result;
+        }
+    }
+}
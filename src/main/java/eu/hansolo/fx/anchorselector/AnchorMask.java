@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+
+import java.util.function.Consumer;
+
+
+/**
+ * Bit operations on a set of anchors that is stored in an int with one bit
+ * per anchor in row-major order, TOP_LEFT is bit 0 and BOTTOM_RIGHT is
+ * bit 8. The selected anchors of an AnchorSelector in
+ * SelectionMode.MULTIPLE are such a mask. The positions of a mask can be
+ * iterated without allocating anything:
+ * <pre>
+ * for (int mask = selector.getSelectedAnchors() ; mask != AnchorMask.NONE ; mask = AnchorMask.withoutFirst(mask)) {
+ *     Pos pos = AnchorMask.first(mask);
+ * }
+ * </pre>
+ */
+public final class AnchorMask {
+    public static final int NONE = 0;
+    public static final int ALL  = (1 << 9) - 1;
+
+
+    private AnchorMask() {}
+
+
+    public static int of(final Pos... POSITIONS) {
+        int mask = NONE;
+        for (Pos pos : POSITIONS) { mask |= bit(pos); }
+        return mask;
+    }
+
+    /**
+     * Returns the bit of the given position, throws an
+     * IllegalArgumentException for baseline positions and null.
+     */
+    public static int bit(final Pos POS) {
+        int index = Anchor.indexOf(POS);
+        if (index < 0) { throw new IllegalArgumentException("Not possible to select given position"); }
+        return 1 << index;
+    }
+
+    public static boolean contains(final int MASK, final Pos POS) { return 0 != (MASK & bit(POS)); }
+
+    public static int size(final int MASK) { return Integer.bitCount(MASK & ALL); }
+
+    /**
+     * Returns the first position of the mask in row-major order or null if
+     * the mask is empty.
+     */
+    public static Pos first(final int MASK) {
+        int bits = MASK & ALL;
+        return NONE == bits ? null : Anchor.POSITIONS[Integer.numberOfTrailingZeros(bits)];
+    }
+
+    /**
+     * Returns the mask without its first position.
+     */
+    public static int withoutFirst(final int MASK) { return MASK & (MASK - 1); }
+
+    public static void forEach(final int MASK, final Consumer<Pos> CONSUMER) {
+        for (int bits = MASK & ALL ; bits != NONE ; bits &= bits - 1) { CONSUMER.accept(Anchor.POSITIONS[Integer.numberOfTrailingZeros(bits)]); }
+    }
+
+    static void checkValid(final int MASK) {
+        if (0 != (MASK & ~ALL)) { throw new IllegalArgumentException("Mask contains bits that are not an anchor: " + Integer.toBinaryString(MASK)); }
+    }
+}
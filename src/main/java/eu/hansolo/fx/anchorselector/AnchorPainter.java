@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+
+/**
+ * Draws an AnchorSelector into a GraphicsContext, used by the canvas and
+ * the image render mode. The proportions are the same as in the node based
+ * AnchorSelector.
+ */
+final class AnchorPainter {
+    static final         double   ANCHOR_SIZE_FACTOR          = 0.125;
+    static final         double   SELECTED_ANCHOR_SIZE_FACTOR = 0.15625;
+    static final         double   INSET_FACTOR                = 0.015625;
+    static final         double   BACKGROUND_SIZE_FACTOR      = 0.84375;
+    private static final double[] FRACTIONS                   = { 0, 0.5, 1 };
+
+
+    private AnchorPainter() {}
+
+
+    static void paint(final GraphicsContext CTX, final double SIZE, final Color BACKGROUND_COLOR, final Color ANCHOR_COLOR,
+                      final Color SELECTED_ANCHOR_COLOR, final int SELECTION_MASK, final int HOVERED_INDEX) {
+        double anchorSize         = SIZE * ANCHOR_SIZE_FACTOR;
+        double selectedAnchorSize = SIZE * SELECTED_ANCHOR_SIZE_FACTOR;
+        double inset1Px           = SIZE * INSET_FACTOR;
+        double backgroundSize     = SIZE * BACKGROUND_SIZE_FACTOR;
+        double backgroundXY       = (SIZE - backgroundSize) * 0.5;
+
+        CTX.clearRect(0, 0, SIZE, SIZE);
+        CTX.setFill(BACKGROUND_COLOR);
+        CTX.fillRect(backgroundXY, backgroundXY, backgroundSize, backgroundSize);
+
+        for (int i = 0 ; i < Anchor.POSITIONS.length ; i++) {
+            boolean isSelected = 0 != (SELECTION_MASK & 1 << i);
+            double  anchorSz   = isSelected ? selectedAnchorSize : anchorSize;
+            double  inset      = isSelected ? 0 : inset1Px;
+            CTX.setFill(isSelected ? SELECTED_ANCHOR_COLOR : i == HOVERED_INDEX ? deriveHoverColor(ANCHOR_COLOR) : ANCHOR_COLOR);
+            CTX.fillRect(anchorOffset(SIZE, i % 3, anchorSz, inset), anchorOffset(SIZE, i / 3, anchorSz, inset), anchorSz, anchorSz);
+        }
+    }
+
+    // Offset of an anchor in the given column (or row) of the 3x3 grid
+    static double anchorOffset(final double SIZE, final int CELL, final double ANCHOR_SIZE, final double INSET) {
+        return INSET + FRACTIONS[CELL] * (SIZE - ANCHOR_SIZE - 2 * INSET);
+    }
+
+    // Same as derive(-anchor-color, 40%) in the stylesheet
+    static Color deriveHoverColor(final Color COLOR) {
+        return Color.hsb(COLOR.getHue(), COLOR.getSaturation() * 0.6, COLOR.getBrightness() + (1 - COLOR.getBrightness()) * 0.4, COLOR.getOpacity());
+    }
+}
@@ -16,26 +16,38 @@
 
 package eu.hansolo.fx.anchorselector;
 
+import eu.hansolo.fx.anchorselector.AnchorSelectorMetrics.Operation;
+import javafx.application.Platform;
 import javafx.beans.DefaultProperty;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.IntegerPropertyBase;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.collections.ObservableList;
 import javafx.css.CssMetaData;
+import javafx.css.StyleConverter;
 import javafx.css.Styleable;
+import javafx.css.StyleableBooleanProperty;
 import javafx.css.StyleableObjectProperty;
 import javafx.css.StyleableProperty;
-import javafx.css.StyleablePropertyFactory;
-import javafx.event.EventHandler;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
-import javafx.scene.input.MouseEvent;
-import javafx.scene.layout.Pane;
-import javafx.scene.layout.Region;
+import javafx.scene.control.Control;
+import javafx.scene.control.Skin;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
 
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 
 /**
@@ -44,7 +56,18 @@ import java.util.List;
  * Time: 07:10
  */
 @DefaultProperty("children")
-public class AnchorSelector extends Region {
+public class AnchorSelector extends Control {
+    /**
+     * NODES styles every anchor with CSS, CANVAS paints the selector into one
+     * canvas per selector and IMAGE shows a shared image from the
+     * AnchorImageCache. IMAGE has the smallest footprint per selector and is
+     * meant for views that show many selectors at once.
+     */
+    public enum RenderMode { NODES, CANVAS, IMAGE }
+    public enum ColorMode { CSS, DIRECT }
+    public enum SelectionMode { SINGLE, MULTIPLE }
+    public enum CommitPolicy { IMMEDIATE, PULSE, DEBOUNCE, THROTTLE }
+
     private static final double                                   PREFERRED_WIDTH               = 64;
     private static final double                                   PREFERRED_HEIGHT              = 64;
     private static final double                                   MINIMUM_WIDTH                 = 32;
@@ -54,40 +77,82 @@ public class AnchorSelector extends Region {
     private static final Color                                    DEFAULT_BACKGROUND_COLOR      = Color.rgb(92, 92, 92, 0.75);
     private static final Color                                    DEFAULT_ANCHOR_COLOR          = Color.rgb(196, 196, 196);
     private static final Color                                    DEFAULT_SELECTED_ANCHOR_COLOR = Color.WHITE;
-    private static final StyleablePropertyFactory<AnchorSelector> FACTORY                       = new StyleablePropertyFactory<>(Region.getClassCssMetaData());
-    private static final CssMetaData<AnchorSelector, Color>       BACKGROUND_COLOR              = FACTORY.createColorCssMetaData("-background-color", s -> s.backgroundColor, DEFAULT_BACKGROUND_COLOR, false);
-    private static final CssMetaData<AnchorSelector, Color>       ANCHOR_COLOR                  = FACTORY.createColorCssMetaData("-anchor-color", s -> s.anchorColor, DEFAULT_ANCHOR_COLOR, false);
-    private static final CssMetaData<AnchorSelector, Color>       SELECTED_ANCHOR_COLOR         = FACTORY.createColorCssMetaData("-selected-anchor-color", s -> s.selectedAnchorColor, DEFAULT_SELECTED_ANCHOR_COLOR, false);
+    private static final Duration                                 DEFAULT_COMMIT_DELAY          = Duration.millis(250);
+    static final         String                                   USER_AGENT_STYLESHEET         = userAgentStylesheet();
+    private static final CssMetaData<AnchorSelector, Color>       BACKGROUND_COLOR              = new ColorCssMetaData("-background-color", DEFAULT_BACKGROUND_COLOR) {
+        @Override StyleableProperty<Color> getField(final AnchorSelector SELECTOR) { return SELECTOR.backgroundColor; }
+        @Override public StyleableProperty<Color> getStyleableProperty(final AnchorSelector SELECTOR) { return SELECTOR.backgroundColorProperty(); }
+    };
+    private static final CssMetaData<AnchorSelector, Color>       ANCHOR_COLOR                  = new ColorCssMetaData("-anchor-color", DEFAULT_ANCHOR_COLOR) {
+        @Override StyleableProperty<Color> getField(final AnchorSelector SELECTOR) { return SELECTOR.anchorColor; }
+        @Override public StyleableProperty<Color> getStyleableProperty(final AnchorSelector SELECTOR) { return SELECTOR.anchorColorProperty(); }
+    };
+    private static final CssMetaData<AnchorSelector, Color>       SELECTED_ANCHOR_COLOR         = new ColorCssMetaData("-selected-anchor-color", DEFAULT_SELECTED_ANCHOR_COLOR) {
+        @Override StyleableProperty<Color> getField(final AnchorSelector SELECTOR) { return SELECTOR.selectedAnchorColor; }
+        @Override public StyleableProperty<Color> getStyleableProperty(final AnchorSelector SELECTOR) { return SELECTOR.selectedAnchorColorProperty(); }
+    };
+    private static final CssMetaData<AnchorSelector, Boolean>     ANIMATED                      = new CssMetaData<AnchorSelector, Boolean>("-animated", StyleConverter.getBooleanConverter(), false) {
+        // Settable without the property, so it is only created for selectors that are styled with -animated
+        @Override public boolean isSettable(final AnchorSelector SELECTOR) { return null == SELECTOR.animated || !((BooleanProperty) SELECTOR.animated).isBound(); }
+        @Override public StyleableProperty<Boolean> getStyleableProperty(final AnchorSelector SELECTOR) { return SELECTOR.animatedProperty(); }
+    };
+    private static final List<CssMetaData<? extends Styleable, ?>> CSS_META_DATA                = cssMetaData();
+    private final        RenderMode                               renderMode;
+    private final        AnchorSelectorModel                      model;
+    private final        AnchorSelectorModel.SelectionListener    modelListener;
+    private final        AtomicBoolean                            modelSyncPending;
+    private volatile     AnchorSelectorMetrics                    metrics;
+    private volatile     List<Subscription>                       subscriptions;
     private              StyleableProperty<Color>                 backgroundColor;
     private              StyleableProperty<Color>                 anchorColor;
     private              StyleableProperty<Color>                 selectedAnchorColor;
-    private              double                                   size;
-    private              double                                   width;
-    private              double                                   height;
-    private              double                                   anchorSize;
-    private              double                                   selectedAnchorSize;
-    private              Rectangle                                background;
-    private              Anchor                                   topLeft;
-    private              Anchor                                   topCenter;
-    private              Anchor                                   topRight;
-    private              Anchor                                   centerRight;
-    private              Anchor                                   bottomRight;
-    private              Anchor                                   bottomCenter;
-    private              Anchor                                   bottomLeft;
-    private              Anchor                                   centerLeft;
-    private              Anchor                                   center;
+    private              StyleableProperty<Boolean>               animated;
+    private              ColorMode                                colorMode;
+    // Set once a skin or ColorMode.DIRECT reads the colors, CSS then creates the color properties
+    private              boolean                                  colorPropertiesRequired;
+    private              boolean                                  colorUpdateSuspended;
+    private              int                                      activeIndex;
     private              Pos                                      _selectedAnchor;
     private              ObjectProperty<Pos>                      selectedAnchor;
-    private              Pane                                     pane;
-    private              EventHandler<MouseEvent>                 mouseHandler;
+    private              SelectionMode                            selectionMode;
+    private              int                                      _selectedAnchors;
+    private              IntegerProperty                          selectedAnchors;
+    private              CommitPolicy                             commitPolicy;
+    private              Duration                                 commitDelay;
+    private              SelectionCommitter                       committer;
 
 
     // ******************** Constructors **************************************
     public AnchorSelector() {
-        anchorSize         = PREFERRED_WIDTH * 0.125;
-        selectedAnchorSize = PREFERRED_WIDTH * 0.1875;
-        _selectedAnchor    = Pos.TOP_LEFT;
-        mouseHandler       = e -> selectAnchor((Anchor) e.getSource());
+        this(RenderMode.NODES, new AnchorSelectorModel());
+    }
+    public AnchorSelector(final RenderMode RENDER_MODE) {
+        this(RENDER_MODE, new AnchorSelectorModel());
+    }
+    public AnchorSelector(final AnchorSelectorModel MODEL) {
+        this(RenderMode.NODES, MODEL);
+    }
+    public AnchorSelector(final RenderMode RENDER_MODE, final AnchorSelectorModel MODEL) {
+        if (null == MODEL) { throw new IllegalArgumentException("Model cannot be null"); }
+        renderMode         = null == RENDER_MODE ? RenderMode.NODES : RENDER_MODE;
+        model              = MODEL;
+        modelListener      = (m, oldPos, newPos) -> onModelChanged();
+        modelSyncPending   = new AtomicBoolean(false);
+        activeIndex        = model.getSelectedIndex();
+        _selectedAnchor    = Anchor.POSITIONS[activeIndex];
+        colorMode          = ColorMode.CSS;
+        selectionMode      = SelectionMode.SINGLE;
+        _selectedAnchors   = AnchorMask.NONE;
+        commitPolicy       = CommitPolicy.PULSE;
+        commitDelay        = DEFAULT_COMMIT_DELAY;
+        if (RenderMode.NODES != renderMode) {
+            // The canvas and the image read the colors from the styleable properties, so they have to exist before CSS is applied
+            backgroundColorProperty();
+            anchorColorProperty();
+            selectedAnchorColorProperty();
+        }
+        // Controls are focus traversable by default but there is no keyboard input
+        setFocusTraversable(false);
         initGraphics();
         registerListeners();
     }
@@ -95,88 +160,73 @@ public class AnchorSelector extends Region {
 
     // ******************** Initialization ************************************
     private void initGraphics() {
-        if (Double.compare(getPrefWidth(), 0.0) <= 0 || Double.compare(getPrefHeight(), 0.0) <= 0 || Double.compare(getWidth(), 0.0) <= 0 ||
-            Double.compare(getHeight(), 0.0) <= 0) {
-            if (getPrefWidth() > 0 && getPrefHeight() > 0) {
-                setPrefSize(getPrefWidth(), getPrefHeight());
-            } else {
-                setPrefSize(PREFERRED_WIDTH, PREFERRED_HEIGHT);
-            }
-        }
-
+        // The preferred size is computed, so the prefWidth and prefHeight properties are only created when they are set
         getStyleClass().add("anchor-selector");
-
-        background = new Rectangle(56, 56);
-        background.getStyleClass().add("background");
-
-        topLeft = new Anchor(Pos.TOP_LEFT, 8, 8);
-        topLeft.getStyleClass().add("anchor");
-        topLeft.setActive(true);
-
-        topCenter = new Anchor(Pos.TOP_CENTER, 8, 8);
-        topCenter.getStyleClass().add("anchor");
-
-        topRight = new Anchor(Pos.TOP_RIGHT, 8, 8);
-        topRight.getStyleClass().add("anchor");
-
-        centerRight = new Anchor(Pos.CENTER_RIGHT, 8, 8);
-        centerRight.getStyleClass().add("anchor");
-
-        bottomRight = new Anchor(Pos.BOTTOM_RIGHT, 8, 8);
-        bottomRight.getStyleClass().add("anchor");
-
-        bottomCenter = new Anchor(Pos.BOTTOM_CENTER, 8, 8);
-        bottomCenter.getStyleClass().add("anchor");
-
-        bottomLeft = new Anchor(Pos.BOTTOM_LEFT, 8, 8);
-        bottomLeft.getStyleClass().add("anchor");
-
-        centerLeft = new Anchor(Pos.CENTER_LEFT, 8, 8);
-        centerLeft.getStyleClass().add("anchor");
-
-        center = new Anchor(Pos.CENTER, 8, 8);
-        center.getStyleClass().add("anchor");
-
-        pane = new Pane(background, topLeft, topCenter, topRight, centerRight, bottomRight, bottomCenter, bottomLeft, centerLeft, center);
-
-        getChildren().setAll(pane);
     }
 
     private void registerListeners() {
-        widthProperty().addListener(o -> resize());
-        heightProperty().addListener(o -> resize());
-        topLeft.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        topCenter.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        topRight.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        centerRight.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        bottomRight.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        bottomCenter.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        bottomLeft.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        centerLeft.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        center.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+        model.addSelectionListener(modelListener);
     }
 
 
     // ******************** Methods *******************************************
     @Override public void layoutChildren() {
+        // Without a scene there is no CSS pass that would create the skin
+        if (null == getSkin()) { setSkin(createDefaultSkin()); }
         super.layoutChildren();
     }
 
+    @Override protected Skin<?> createDefaultSkin() {
+        switch (renderMode) {
+            case CANVAS: return new CanvasAnchorSelectorSkin(this);
+            case IMAGE : return new ImageAnchorSelectorSkin(this);
+            default    : return new AnchorSelectorSkin(this);
+        }
+    }
+
     @Override protected double computeMinWidth(final double HEIGHT) { return MINIMUM_WIDTH; }
     @Override protected double computeMinHeight(final double WIDTH) { return MINIMUM_HEIGHT; }
-    @Override protected double computePrefWidth(final double HEIGHT) { return super.computePrefWidth(HEIGHT); }
-    @Override protected double computePrefHeight(final double WIDTH) { return super.computePrefHeight(WIDTH); }
+    @Override protected double computePrefWidth(final double HEIGHT) { return PREFERRED_WIDTH; }
+    @Override protected double computePrefHeight(final double WIDTH) { return PREFERRED_HEIGHT; }
     @Override protected double computeMaxWidth(final double HEIGHT) { return MAXIMUM_WIDTH; }
     @Override protected double computeMaxHeight(final double WIDTH) { return MAXIMUM_HEIGHT; }
 
     @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
 
+    /**
+     * Returns the render mode of the default skin, another skin can be set
+     * with setSkin() or -fx-skin.
+     */
+    public RenderMode getRenderMode() { return renderMode; }
+
+    /**
+     * Returns the headless selection model. Changing its selection from
+     * any thread updates this control on the FX application thread, at
+     * most once per pulse with the latest value.
+     */
+    public AnchorSelectorModel getModel() { return model; }
+
+    /**
+     * Returns the metrics of this selector, they are only recorded while
+     * AnchorSelectorMetrics are enabled.
+     */
+    public AnchorSelectorMetrics getMetrics() {
+        AnchorSelectorMetrics result = metrics;
+        if (null == result) {
+            synchronized (this) {
+                if (null == metrics) { metrics = new AnchorSelectorMetrics(); }
+                result = metrics;
+            }
+        }
+        return result;
+    }
+
     public Pos getSelectedAnchor() { return null == selectedAnchor ? _selectedAnchor : selectedAnchor.get(); }
-    private void setSelectedAnchor(final Anchor ANCHOR) {
+    private void setSelectedAnchor(final Pos POS) {
         if (null == selectedAnchor) {
-            _selectedAnchor = ANCHOR.getPosition();
+            _selectedAnchor = POS;
         } else {
-            selectedAnchor.set(ANCHOR.getPosition());
+            selectedAnchor.set(POS);
         }
     }
     public ReadOnlyObjectProperty<Pos> selectedAnchorProperty() {
@@ -190,12 +240,99 @@ public class AnchorSelector extends Region {
         return selectedAnchor;
     }
 
-    public Color getBackgroundColor() { return backgroundColorProperty().getValue(); }
+    public SelectionMode getSelectionMode() { return selectionMode; }
+    /**
+     * In SelectionMode.MULTIPLE the control shows the selected anchors
+     * instead of the selected anchor and a click toggles the anchor under
+     * the mouse in the selected anchors. Dragging sets the anchors under the
+     * mouse to the state of the first anchor after the click. The selected
+     * anchor stays as it is.
+     */
+    public void setSelectionMode(final SelectionMode MODE) {
+        SelectionMode mode = null == MODE ? SelectionMode.SINGLE : MODE;
+        if (mode == selectionMode) { return; }
+        int previousMask = getSelectionMask();
+        selectionMode = mode;
+        selectionMaskChanged(previousMask ^ getSelectionMask());
+    }
+
+    /**
+     * Returns the selected anchors as a mask with one bit per anchor, see
+     * AnchorMask. They are only shown in SelectionMode.MULTIPLE but can be
+     * changed in both modes.
+     */
+    public int getSelectedAnchors() { return null == selectedAnchors ? _selectedAnchors : selectedAnchors.get(); }
+    public void setSelectedAnchors(final int MASK) {
+        AnchorMask.checkValid(MASK);
+        int previousMask = getSelectedAnchors();
+        if (MASK == previousMask) { return; }
+        long start = AnchorSelectorMetrics.start();
+        if (null == selectedAnchors) {
+            _selectedAnchors = MASK;
+        } else {
+            selectedAnchors.set(MASK);
+        }
+        if (SelectionMode.MULTIPLE == selectionMode) { selectionMaskChanged(previousMask ^ MASK); }
+        recordMetrics(Operation.SELECTION, start);
+    }
+    public ReadOnlyIntegerProperty selectedAnchorsProperty() {
+        if (null == selectedAnchors) {
+            selectedAnchors = new IntegerPropertyBase(_selectedAnchors) {
+                @Override public Object getBean() { return AnchorSelector.this; }
+                @Override public String getName() { return "selectedAnchors"; }
+            };
+        }
+        return selectedAnchors;
+    }
+
+    public boolean isAnchorSelected(final Pos POS) { return AnchorMask.contains(getSelectedAnchors(), POS); }
+    public void setAnchorSelected(final Pos POS, final boolean SELECTED) {
+        int bit = AnchorMask.bit(POS);
+        setSelectedAnchors(SELECTED ? getSelectedAnchors() | bit : getSelectedAnchors() & ~bit);
+    }
+    public void toggleAnchor(final Pos POS) { setSelectedAnchors(getSelectedAnchors() ^ AnchorMask.bit(POS)); }
+
+    public void selectAllAnchors() { setSelectedAnchors(AnchorMask.ALL); }
+
+    public void clearSelectedAnchors() { setSelectedAnchors(AnchorMask.NONE); }
+
+    public Pos getCommittedAnchor() { return null == committer ? getSelectedAnchor() : committer.committedAnchorProperty().get(); }
+    /**
+     * The selected anchor once the selection settled according to the
+     * commit policy, e.g. for listeners that start expensive work. The
+     * control itself always shows the selected anchor right away.
+     * Nothing is tracked before this property is requested for the first time.
+     */
+    public ReadOnlyObjectProperty<Pos> committedAnchorProperty() {
+        if (null == committer) { committer = new SelectionCommitter(AnchorSelector.this, this::getSelectedAnchor, commitPolicy, commitDelay); }
+        return committer.committedAnchorProperty();
+    }
+
+    public CommitPolicy getCommitPolicy() { return commitPolicy; }
+    /**
+     * IMMEDIATE commits every selection, PULSE the last selection of a
+     * pulse, DEBOUNCE the selection after it did not change for the commit
+     * delay and THROTTLE commits at most once per commit delay.
+     * A change of the policy commits the current selection.
+     */
+    public void setCommitPolicy(final CommitPolicy POLICY) {
+        commitPolicy = null == POLICY ? CommitPolicy.PULSE : POLICY;
+        if (null != committer) { committer.setPolicy(commitPolicy); }
+    }
+
+    public Duration getCommitDelay() { return commitDelay; }
+    public void setCommitDelay(final Duration DELAY) {
+        if (null == DELAY || DELAY.lessThan(Duration.ZERO) || DELAY.isUnknown()) { throw new IllegalArgumentException("Commit delay must be zero or positive"); }
+        commitDelay = DELAY;
+        if (null != committer) { committer.setDelay(commitDelay); }
+    }
+
+    public Color getBackgroundColor() { return null == backgroundColor ? DEFAULT_BACKGROUND_COLOR : backgroundColor.getValue(); }
     public void setBackgroundColor(final Color COLOR) { backgroundColorProperty().setValue(COLOR); }
     public StyleableProperty<Color> backgroundColorProperty() {
         if (null == backgroundColor) {
             backgroundColor = new StyleableObjectProperty<Color>(DEFAULT_BACKGROUND_COLOR) {
-                @Override protected void invalidated() { setStyle(); }
+                @Override protected void invalidated() { redraw(); }
                 @Override public Object getBean() { return AnchorSelector.this; }
                 @Override public String getName() { return "backgroundColor"; }
                 @Override public CssMetaData<? extends Styleable, Color> getCssMetaData() { return BACKGROUND_COLOR; }
@@ -204,12 +341,12 @@ public class AnchorSelector extends Region {
         return backgroundColor;
     }
     
-    public Color getAnchorColor() { return anchorColorProperty().getValue(); }
+    public Color getAnchorColor() { return null == anchorColor ? DEFAULT_ANCHOR_COLOR : anchorColor.getValue(); }
     public void setAnchorColor(final Color COLOR) { anchorColorProperty().setValue(COLOR); }
     public StyleableProperty<Color> anchorColorProperty() {
         if (null == anchorColor) {
             anchorColor = new StyleableObjectProperty<Color>(DEFAULT_ANCHOR_COLOR) {
-                @Override protected void invalidated() { setStyle(); }
+                @Override protected void invalidated() { redraw(); }
                 @Override public Object getBean() { return AnchorSelector.this; }
                 @Override public String getName() { return "anchorColor"; }
                 @Override public CssMetaData<? extends Styleable, Color> getCssMetaData() { return ANCHOR_COLOR; }
@@ -218,12 +355,12 @@ public class AnchorSelector extends Region {
         return anchorColor;
     }
 
-    public Color getSelectedAnchorColor() { return selectedAnchorColorProperty().getValue(); }
+    public Color getSelectedAnchorColor() { return null == selectedAnchorColor ? DEFAULT_SELECTED_ANCHOR_COLOR : selectedAnchorColor.getValue(); }
     public void setSelectedAnchorColor(final Color COLOR) { selectedAnchorColorProperty().setValue(COLOR); }
     public StyleableProperty<Color> selectedAnchorColorProperty() {
         if (null == selectedAnchorColor) {
             selectedAnchorColor = new StyleableObjectProperty<Color>(DEFAULT_SELECTED_ANCHOR_COLOR) {
-                @Override protected void invalidated() { setStyle(); }
+                @Override protected void invalidated() { redraw(); }
                 @Override public Object getBean() { return AnchorSelector.this; }
                 @Override public String getName() { return "selectedAnchorColor"; }
                 @Override public CssMetaData<? extends Styleable, Color> getCssMetaData() { return SELECTED_ANCHOR_COLOR; }
@@ -232,167 +369,281 @@ public class AnchorSelector extends Region {
         return selectedAnchorColor;
     }
 
-    public void dispose() {
-        topLeft.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        topCenter.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        topRight.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        centerRight.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        bottomRight.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        bottomCenter.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        bottomLeft.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        centerLeft.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        center.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-    }
-
-    private void selectAnchor(final Anchor ANCHOR) {
-        topLeft.setActive(false);
-        topCenter.setActive(false);
-        topRight.setActive(false);
-        centerRight.setActive(false);
-        bottomRight.setActive(false);
-        bottomCenter.setActive(false);
-        bottomLeft.setActive(false);
-        centerLeft.setActive(false);
-        center.setActive(false);
-        ANCHOR.setActive(true);
-        setSelectedAnchor(ANCHOR);
-        resizeAnchors();
-    }
-
-    private void setStyle() {
-        StringBuilder style = new StringBuilder().append("-background-color: ").append(colorToCSS(getBackgroundColor())).append(";")
-                                                 .append("-anchor-color: ").append(colorToCSS(getAnchorColor())).append(";")
-                                                 .append("-selected-anchor-color: ").append(colorToCSS(getSelectedAnchorColor())).append(";");
-        setStyle(style.toString());
-    }
-
-    private String colorToCSS(final Color COLOR) { return COLOR.toString().replace("0x", "#"); }
+    public boolean isAnimated() { return null != animated && animated.getValue(); }
+    public void setAnimated(final boolean ANIMATED) {
+        if (null == animated && !ANIMATED) { return; }
+        animatedProperty().setValue(ANIMATED);
+    }
+    /**
+     * Animates the size and the color of the anchors when the selection
+     * changes, can be set by CSS with -animated.
+     * Only the default node skin is animated.
+     */
+    public StyleableProperty<Boolean> animatedProperty() {
+        if (null == animated) {
+            animated = new StyleableBooleanProperty(false) {
+                @Override protected void invalidated() {
+                    AbstractAnchorSelectorSkin skin = anchorSelectorSkin();
+                    if (null != skin) { skin.animatedChanged(); }
+                }
+                @Override public Object getBean() { return AnchorSelector.this; }
+                @Override public String getName() { return "animated"; }
+                @Override public CssMetaData<? extends Styleable, Boolean> getCssMetaData() { return ANIMATED; }
+            };
+        }
+        return animated;
+    }
 
+    /**
+     * Sets all three colors at once, the inline style (or the canvas) is
+     * only updated once instead of once per color.
+     */
+    public void setColors(final Color BACKGROUND_COLOR, final Color ANCHOR_COLOR, final Color SELECTED_ANCHOR_COLOR) {
+        colorUpdateSuspended = true;
+        try {
+            setBackgroundColor(BACKGROUND_COLOR);
+            setAnchorColor(ANCHOR_COLOR);
+            setSelectedAnchorColor(SELECTED_ANCHOR_COLOR);
+        } finally {
+            colorUpdateSuspended = false;
+        }
+        redraw();
+    }
 
-    // ******************** Style related *************************************
-    @Override public String getUserAgentStylesheet() {
-        return AnchorSelector.class.getResource("anchorselector.css").toExternalForm();
+    public ColorMode getColorMode() { return colorMode; }
+    /**
+     * In ColorMode.DIRECT the colors are set as fills of the background and
+     * the anchors instead of being passed to CSS by an inline style, which
+     * avoids parsing and reapplying CSS on every color change. Author
+     * stylesheets that set -fx-fill on the shapes still take precedence.
+     * The canvas and the image skin always draw the colors directly.
+     */
+    public void setColorMode(final ColorMode COLOR_MODE) {
+        ColorMode newColorMode = null == COLOR_MODE ? ColorMode.CSS : COLOR_MODE;
+        if (newColorMode == colorMode) { return; }
+        colorMode = newColorMode;
+        // Colors set by CSS have to reach the properties to be applied as fills, also when there is no content yet
+        if (ColorMode.DIRECT == colorMode) { inflateColorProperties(); }
+        AbstractAnchorSelectorSkin skin = anchorSelectorSkin();
+        if (null != skin) { skin.colorModeChanged(); }
     }
 
-    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() { return FACTORY.getCssMetaData(); }
-    @Override public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() { return FACTORY.getCssMetaData(); }
+    /**
+     * Delivers changes of the selected anchor to the consumer on the given
+     * executor, e.g. for work that should not run on the FX application
+     * thread. A slow consumer only gets the latest selection, intermediate
+     * selections that happen while it is busy are skipped. The subscription
+     * ends with unsubscribe(), dispose() or when the executor rejects a task.
+     */
+    public Subscription subscribe(final Executor EXECUTOR, final Consumer<Pos> CONSUMER) {
+        if (null == EXECUTOR || null == CONSUMER) { throw new IllegalArgumentException("Executor and consumer cannot be null"); }
+        List<Subscription> list = subscriptions;
+        if (null == list) {
+            synchronized (this) {
+                if (null == subscriptions) { subscriptions = new CopyOnWriteArrayList<>(); }
+                list = subscriptions;
+            }
+        }
+        Subscription subscription = new ExecutorSubscription(model, EXECUTOR, CONSUMER, list::remove);
+        list.add(subscription);
+        return subscription;
+    }
 
+    /**
+     * Removes the mouse handler of the skin and the model listener, stops
+     * the commit timer and the animation and ends all subscriptions. The
+     * model can still be used.
+     */
+    public void dispose() {
+        AbstractAnchorSelectorSkin skin = anchorSelectorSkin();
+        if (null != skin) { skin.disconnect(); }
+        model.removeSelectionListener(modelListener);
+        if (null != committer) { committer.dispose(); }
+        List<Subscription> list = subscriptions;
+        if (null != list) {
+            for (Subscription subscription : list) { subscription.unsubscribe(); }
+        }
+    }
 
-    // ******************** Resizing ******************************************
-    private void resize() {
-        width = getWidth() - getInsets().getLeft() - getInsets().getRight();
-        height = getHeight() - getInsets().getTop() - getInsets().getBottom();
-        size = width < height ? width : height;
+    int getSelectedIndex() { return activeIndex; }
 
-        if (width > 0 && height > 0) {
-            pane.setMaxSize(size, size);
-            pane.setPrefSize(size, size);
-            pane.relocate((getWidth() - size) * 0.5, (getHeight() - size) * 0.5);
+    /**
+     * Ends the delay of the commit policy right away, used by tests.
+     */
+    void elapseCommitDelay() {
+        if (null != committer) { committer.elapseDelay(); }
+    }
 
-            background.setWidth(size * 0.84375);
-            background.setHeight(size * 0.84375);
-            background.relocate((size - background.getWidth()) * 0.5, (size - background.getHeight()) * 0.5);
+    /**
+     * Returns the anchors that are shown as selected, the selected anchor
+     * in SelectionMode.SINGLE and the selected anchors in
+     * SelectionMode.MULTIPLE.
+     */
+    int getSelectionMask() { return SelectionMode.MULTIPLE == selectionMode ? getSelectedAnchors() : 1 << activeIndex; }
+
+    /**
+     * Records an operation in the metrics of this selector, which are only
+     * created once something was measured.
+     */
+    void recordMetrics(final Operation OPERATION, final long START) {
+        if (AnchorSelectorMetrics.NOT_MEASURED != START) { getMetrics().record(OPERATION, START); }
+    }
 
-            anchorSize         = size * 0.125;
-            selectedAnchorSize = size * 0.15625;
-            
-            resizeAnchors();
-        }
+    /**
+     * Selects the anchor with the given index, used by the skins for mouse input.
+     */
+    void select(final int INDEX) {
+        if (INDEX == activeIndex) { return; }
+        updateAnchors(INDEX, AnchorSelectorEvents.SOURCE_MOUSE);
+        model.setSelectedIndex(INDEX, modelListener);
     }
 
-    private void resizeAnchors() {
-        Pos selectedAnchor = getSelectedAnchor();
+    /**
+     * Adds the anchor with the given index to or removes it from the
+     * selected anchors, used by the skins for mouse input.
+     */
+    void setAnchorSelected(final int INDEX, final boolean SELECTED) { setAnchorSelected(Anchor.POSITIONS[INDEX], SELECTED); }
+
+    /**
+     * Lets CSS create the color properties for skins that read the colors
+     * from them. The next CSS pass creates them with the styled colors, a
+     * selector that is already styled gets that pass at the next pulse.
+     */
+    void inflateColorProperties() {
+        if (colorPropertiesRequired) { return; }
+        colorPropertiesRequired = true;
+        // Not applied right away, this might be called by a skin that CSS installs while styling this selector
+        if (null != getScene()) { PulseScheduler.schedule(this::applyCss); }
+    }
 
-        double inset1Px = size * 0.015625;
-        if (Pos.TOP_LEFT == selectedAnchor) {
-            topLeft.setWidth(selectedAnchorSize);
-            topLeft.setHeight(selectedAnchorSize);
-            topLeft.relocate(0, 0);
-        } else {
-            topLeft.setWidth(anchorSize);
-            topLeft.setHeight(anchorSize);
-            topLeft.relocate(inset1Px, inset1Px);
+    private void onModelChanged() {
+        if (Platform.isFxApplicationThread()) {
+            applyModel();
+        } else if (modelSyncPending.compareAndSet(false, true)) {
+            PulseScheduler.schedule(this::syncModel);
         }
+    }
 
-        if (Pos.TOP_CENTER == selectedAnchor) {
-            topCenter.setWidth(selectedAnchorSize);
-            topCenter.setHeight(selectedAnchorSize);
-            topCenter.relocate((size - selectedAnchorSize) * 0.5, 0);
-        } else {
-            topCenter.setWidth(anchorSize);
-            topCenter.setHeight(anchorSize);
-            topCenter.relocate((size - anchorSize) * 0.5, inset1Px);
-        }
+    private void syncModel() {
+        modelSyncPending.set(false);
+        applyModel();
+    }
 
-        if (Pos.TOP_RIGHT == selectedAnchor) {
-            topRight.setWidth(selectedAnchorSize);
-            topRight.setHeight(selectedAnchorSize);
-            topRight.relocate((size - selectedAnchorSize), 0);
-        } else {
-            topRight.setWidth(anchorSize);
-            topRight.setHeight(anchorSize);
-            topRight.relocate((size - anchorSize - inset1Px), inset1Px);
-        }
+    private void applyModel() {
+        int index = model.getSelectedIndex();
+        if (index != activeIndex) { updateAnchors(index, AnchorSelectorEvents.SOURCE_PROGRAMMATIC); }
+    }
 
-        if (Pos.CENTER_RIGHT == selectedAnchor) {
-            centerRight.setWidth(selectedAnchorSize);
-            centerRight.setHeight(selectedAnchorSize);
-            centerRight.relocate((size - selectedAnchorSize), (size - selectedAnchorSize) * 0.5);
-        } else {
-            centerRight.setWidth(anchorSize);
-            centerRight.setHeight(anchorSize);
-            centerRight.relocate((size - anchorSize - inset1Px), (size - anchorSize) * 0.5);
-        }
+    private void updateAnchors(final int INDEX, final String SOURCE) {
+        long start         = AnchorSelectorMetrics.start();
+        int  previousIndex = activeIndex;
+        activeIndex = INDEX;
+        if (SelectionMode.SINGLE == selectionMode) { selectionMaskChanged(1 << previousIndex | 1 << INDEX); }
+        setSelectedAnchor(Anchor.POSITIONS[INDEX]);
+        if (null != committer) { committer.selectionChanged(); }
+        recordMetrics(Operation.SELECTION, start);
+        AnchorSelectorEvents.selection(Anchor.POSITIONS[previousIndex], Anchor.POSITIONS[INDEX], SOURCE);
+    }
 
+    /**
+     * Passes the anchors whose selection state is shown differently now to
+     * the skin.
+     */
+    private void selectionMaskChanged(final int CHANGED_MASK) {
+        if (AnchorMask.NONE == CHANGED_MASK) { return; }
+        AbstractAnchorSelectorSkin skin = anchorSelectorSkin();
+        if (null != skin) { skin.selectionChanged(CHANGED_MASK); }
+        // Only the content changes, the preferred size stays the same => no need to request a parent layout
+        setNeedsLayout(true);
+    }
 
-        if (Pos.BOTTOM_RIGHT == selectedAnchor) {
-            bottomRight.setWidth(selectedAnchorSize);
-            bottomRight.setHeight(selectedAnchorSize);
-            bottomRight.relocate((size - selectedAnchorSize), size - selectedAnchorSize);
-        } else {
-            bottomRight.setWidth(anchorSize);
-            bottomRight.setHeight(anchorSize);
-            bottomRight.relocate((size - anchorSize - inset1Px), size - anchorSize - inset1Px);
+    private void redraw() {
+        if (colorUpdateSuspended) { return; }
+        AbstractAnchorSelectorSkin skin = anchorSelectorSkin();
+        if (null != skin) {
+            skin.colorsChanged();
+        } else if (RenderMode.NODES == renderMode && ColorMode.CSS == colorMode) {
+            // The default skin is created later and picks the colors up from the inline style
+            setStyle();
         }
+    }
 
-        if (Pos.BOTTOM_CENTER == selectedAnchor) {
-            bottomCenter.setWidth(selectedAnchorSize);
-            bottomCenter.setHeight(selectedAnchorSize);
-            bottomCenter.relocate((size - selectedAnchorSize) * 0.5, size - selectedAnchorSize);
-        } else {
-            bottomCenter.setWidth(anchorSize);
-            bottomCenter.setHeight(anchorSize);
-            bottomCenter.relocate((size - anchorSize) * 0.5, size - anchorSize - inset1Px);
-        }
+    /**
+     * Passes the colors to the stylesheet by an inline style, used by the
+     * default skin in ColorMode.CSS.
+     */
+    void setStyle() {
+        long                            start    = AnchorSelectorMetrics.start();
+        AnchorSelectorEvents.StyleEvent event    = AnchorSelectorEvents.beginStyle();
+        String                          newStyle = new StringBuilder(96).append("-background-color: ").append(colorToCSS(getBackgroundColor())).append(";")
+                                                                        .append("-anchor-color: ").append(colorToCSS(getAnchorColor())).append(";")
+                                                                        .append("-selected-anchor-color: ").append(colorToCSS(getSelectedAnchorColor())).append(";")
+                                                                        .toString();
+        // An unchanged inline style would still be parsed and reapplied
+        boolean                         changed  = !newStyle.equals(getStyle());
+        if (changed) { setStyle(newStyle); }
+        recordMetrics(Operation.STYLE, start);
+        AnchorSelectorEvents.endStyle(event, newStyle, changed);
+    }
 
-        if (Pos.BOTTOM_LEFT == selectedAnchor) {
-            bottomLeft.setWidth(selectedAnchorSize);
-            bottomLeft.setHeight(selectedAnchorSize);
-            bottomLeft.relocate(0, size - selectedAnchorSize);
-        } else {
-            bottomLeft.setWidth(anchorSize);
-            bottomLeft.setHeight(anchorSize);
-            bottomLeft.relocate(inset1Px, size - anchorSize - inset1Px);
-        }
+    // Color.toString() returns 0xrrggbbaa
+    private String colorToCSS(final Color COLOR) { return "#" + COLOR.toString().substring(2); }
 
-        if (Pos.CENTER_LEFT == selectedAnchor) {
-            centerLeft.setWidth(selectedAnchorSize);
-            centerLeft.setHeight(selectedAnchorSize);
-            centerLeft.relocate(0, (size - selectedAnchorSize) * 0.5);
-        } else {
-            centerLeft.setWidth(anchorSize);
-            centerLeft.setHeight(anchorSize);
-            centerLeft.relocate(inset1Px, (size - anchorSize) * 0.5);
+    // ******************** Style related *************************************
+    @Override public String getUserAgentStylesheet() { return USER_AGENT_STYLESHEET; }
+
+    /**
+     * Prefers the binary stylesheet that is generated by the build, JavaFX
+     * loads it without parsing the css. Like in JavaFX the css is used if
+     * binary stylesheets are disabled with -Dbinary.css=false or if there is
+     * no binary stylesheet, e.g. when running from the sources.
+     */
+    private static String userAgentStylesheet() {
+        URL binary = "false".equals(System.getProperty("binary.css")) ? null : AnchorSelector.class.getResource("anchorselector.bss");
+        return (null == binary ? AnchorSelector.class.getResource("anchorselector.css") : binary).toExternalForm();
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() { return CSS_META_DATA; }
+    @Override protected List<CssMetaData<? extends Styleable, ?>> getControlCssMetaData() { return CSS_META_DATA; }
+
+    private static List<CssMetaData<? extends Styleable, ?>> cssMetaData() {
+        List<CssMetaData<? extends Styleable, ?>> cssMetaData = new ArrayList<>(Control.getClassCssMetaData());
+        cssMetaData.add(BACKGROUND_COLOR);
+        cssMetaData.add(ANCHOR_COLOR);
+        cssMetaData.add(SELECTED_ANCHOR_COLOR);
+        cssMetaData.add(ANIMATED);
+        return Collections.unmodifiableList(cssMetaData);
+    }
+
+    // The built-in skins are called directly instead of listening to the properties
+    private AbstractAnchorSelectorSkin anchorSelectorSkin() {
+        Skin<?> skin = getSkin();
+        return skin instanceof AbstractAnchorSelectorSkin ? (AbstractAnchorSelectorSkin) skin : null;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Color that is only settable by CSS without its property if the
+     * selector needs the colors, otherwise CSS would create the properties
+     * of every styled selector.
+     */
+    private abstract static class ColorCssMetaData extends CssMetaData<AnchorSelector, Color> {
+        ColorCssMetaData(final String PROPERTY, final Color INITIAL_VALUE) {
+            super(PROPERTY, StyleConverter.getColorConverter(), INITIAL_VALUE, false);
         }
 
-        if (Pos.CENTER == selectedAnchor) {
-            center.setWidth(selectedAnchorSize);
-            center.setHeight(selectedAnchorSize);
-            center.relocate((size - selectedAnchorSize) * 0.5, (size - selectedAnchorSize) * 0.5);
-        } else {
-            center.setWidth(anchorSize);
-            center.setHeight(anchorSize);
-            center.relocate((size - anchorSize) * 0.5, (size - anchorSize) * 0.5);
+        abstract StyleableProperty<Color> getField(AnchorSelector SELECTOR);
+
+        @Override public boolean isSettable(final AnchorSelector SELECTOR) {
+            StyleableProperty<Color> property = getField(SELECTOR);
+            return null == property ? SELECTOR.colorPropertiesRequired : !((ObjectProperty<Color>) property).isBound();
         }
     }
+
+    public interface Subscription {
+        boolean isSubscribed();
+
+        void unsubscribe();
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Java Flight Recorder events of the AnchorSelector. The events are
+ * disabled by default and have to be enabled by the recording, e.g. with
+ * Recording.enable("eu.hansolo.fx.anchorselector.Selection").
+ * If the runtime has no jdk.jfr module (Java 8 before 8u262) no events are
+ * created at all.
+ */
+final class AnchorSelectorEvents {
+    static final String  SOURCE_MOUSE        = "mouse";
+    static final String  SOURCE_PROGRAMMATIC = "programmatic";
+    static final boolean AVAILABLE           = isFlightRecorderAvailable();
+
+
+    private AnchorSelectorEvents() {}
+
+
+    static void selection(final Pos OLD_POS, final Pos NEW_POS, final String SOURCE) {
+        if (!AVAILABLE) { return; }
+        SelectionEvent event = new SelectionEvent();
+        if (!event.isEnabled()) { return; }
+        event.oldPosition = OLD_POS.name();
+        event.newPosition = NEW_POS.name();
+        event.source      = SOURCE;
+        event.commit();
+    }
+
+    /**
+     * Returns a started event or null if the event is not enabled.
+     */
+    static ResizeAnchorsEvent beginResizeAnchors() {
+        if (!AVAILABLE) { return null; }
+        ResizeAnchorsEvent event = new ResizeAnchorsEvent();
+        if (!event.isEnabled()) { return null; }
+        event.begin();
+        return event;
+    }
+
+    static void endResizeAnchors(final ResizeAnchorsEvent EVENT, final double SIZE) {
+        if (null == EVENT) { return; }
+        EVENT.size = SIZE;
+        EVENT.commit();
+    }
+
+    /**
+     * Returns a started event or null if the event is not enabled.
+     */
+    static StyleEvent beginStyle() {
+        if (!AVAILABLE) { return null; }
+        StyleEvent event = new StyleEvent();
+        if (!event.isEnabled()) { return null; }
+        event.begin();
+        return event;
+    }
+
+    static void endStyle(final StyleEvent EVENT, final String STYLE, final boolean CHANGED) {
+        if (null == EVENT) { return; }
+        EVENT.style   = STYLE;
+        EVENT.changed = CHANGED;
+        EVENT.commit();
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    @Name("eu.hansolo.fx.anchorselector.Selection")
+    @Label("Anchor Selection")
+    @Description("The selected anchor of an AnchorSelector changed")
+    @Category({ "JavaFX", "AnchorSelector" })
+    @Enabled(false)
+    @StackTrace(false)
+    static final class SelectionEvent extends Event {
+        @Label("Old Position") String oldPosition;
+        @Label("New Position") String newPosition;
+        @Label("Source")       String source;
+    }
+
+    @Name("eu.hansolo.fx.anchorselector.ResizeAnchors")
+    @Label("Resize Anchors")
+    @Description("Layout pass that resized all anchors of an AnchorSelector")
+    @Category({ "JavaFX", "AnchorSelector" })
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ResizeAnchorsEvent extends Event {
+        @Label("Size") double size;
+    }
+
+    @Name("eu.hansolo.fx.anchorselector.Style")
+    @Label("Style Update")
+    @Description("Rebuild of the inline style of an AnchorSelector")
+    @Category({ "JavaFX", "AnchorSelector" })
+    @Enabled(false)
+    @StackTrace(false)
+    static final class StyleEvent extends Event {
+        @Label("Style")   String  style;
+        @Label("Changed") boolean changed;
+    }
+}
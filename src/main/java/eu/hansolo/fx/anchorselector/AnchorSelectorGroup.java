@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Pos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Keeps the selection of many AnchorSelectors in sync. A selection made
+ * in one member is set on all other members in one pass, without the
+ * members listening to each other. The selected anchor of the group is
+ * null if the members disagree (mixed state), e.g. after adding a member
+ * with another selection. It is updated at most once per pulse, so
+ * listeners of selectedAnchorProperty() get one notification per pulse,
+ * no matter how many members changed. A selection that is set on the
+ * group itself is reported right away.
+ * A group has to be used on the FX application thread, changes of the
+ * member models from other threads are applied on the next pulse, only
+ * the latest of them is passed on to the other members.
+ * Members can share a model, the group listens to every model once.
+ */
+public class AnchorSelectorGroup {
+    private final List<AnchorSelector>                  members;
+    // Number of members per model, the listener is removed from a model with its last member
+    private final Map<AnchorSelectorModel, Integer>     memberCounts;
+    private final AnchorSelectorModel.SelectionListener memberListener;
+    private final ReadOnlyObjectWrapper<Pos>            selectedAnchor;
+    private final Runnable                              updateTask;
+    private final Runnable                              syncTask;
+    // Model that changed off the FX application thread, it is passed on to the other members on the next pulse
+    private final AtomicReference<AnchorSelectorModel>  pendingSource;
+    private       boolean                               updatePending;
+
+
+    // ******************** Constructors **************************************
+    public AnchorSelectorGroup() {
+        members        = new ArrayList<>();
+        memberCounts   = new IdentityHashMap<>();
+        memberListener = this::onMemberChanged;
+        selectedAnchor = new ReadOnlyObjectWrapper<>(this, "selectedAnchor");
+        updateTask     = () -> {
+            updatePending = false;
+            selectedAnchor.set(computeSelectedAnchor());
+        };
+        syncTask       = this::syncPendingSource;
+        pendingSource  = new AtomicReference<>();
+    }
+
+
+    // ******************** Methods *******************************************
+    public void add(final AnchorSelector MEMBER) {
+        if (null == MEMBER || members.contains(MEMBER)) { return; }
+        members.add(MEMBER);
+        AnchorSelectorModel model = MEMBER.getModel();
+        Integer             count = memberCounts.get(model);
+        memberCounts.put(model, null == count ? 1 : count + 1);
+        if (null == count) { model.addSelectionListener(memberListener); }
+        invalidate();
+    }
+
+    public void remove(final AnchorSelector MEMBER) {
+        if (!members.remove(MEMBER)) { return; }
+        AnchorSelectorModel model = MEMBER.getModel();
+        int                 count = memberCounts.get(model);
+        if (1 == count) {
+            memberCounts.remove(model);
+            model.removeSelectionListener(memberListener);
+        } else {
+            memberCounts.put(model, count - 1);
+        }
+        invalidate();
+    }
+
+    public List<AnchorSelector> getMembers() { return Collections.unmodifiableList(members); }
+
+    /**
+     * Returns the anchor that is selected in all members or null if the
+     * members disagree or the group is empty. Changes of the members are
+     * reflected on the next pulse.
+     */
+    public Pos getSelectedAnchor() { return selectedAnchor.get(); }
+    public void setSelectedAnchor(final Pos POS) {
+        int index = Anchor.indexOf(POS);
+        if (index < 0) { throw new IllegalArgumentException("Not possible to select given position"); }
+        selectAll(index, null);
+    }
+    public ReadOnlyObjectProperty<Pos> selectedAnchorProperty() { return selectedAnchor.getReadOnlyProperty(); }
+
+    /**
+     * Returns true if the members disagree, it is computed from the
+     * members right away.
+     */
+    public boolean isMixed() { return !members.isEmpty() && null == computeSelectedAnchor(); }
+
+    private void onMemberChanged(final AnchorSelectorModel MODEL, final Pos OLD_POS, final Pos NEW_POS) {
+        if (Platform.isFxApplicationThread()) {
+            selectAll(Anchor.indexOf(NEW_POS), MODEL);
+        } else if (null == pendingSource.getAndSet(MODEL)) {
+            PulseScheduler.schedule(syncTask);
+        }
+    }
+
+    private void syncPendingSource() {
+        AnchorSelectorModel source = pendingSource.getAndSet(null);
+        // The member might have been removed since it changed
+        if (null != source && memberCounts.containsKey(source)) { selectAll(source.getSelectedIndex(), source); }
+    }
+
+    private void selectAll(final int INDEX, final AnchorSelectorModel SOURCE) {
+        for (AnchorSelector member : members) {
+            AnchorSelectorModel model = member.getModel();
+            // The group listener is the source, so the members do not notify the group again
+            if (model != SOURCE) { model.setSelectedIndex(INDEX, memberListener); }
+        }
+        if (null == SOURCE && !members.isEmpty()) {
+            // Set on the group, all members agree now
+            selectedAnchor.set(Anchor.POSITIONS[INDEX]);
+        } else {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        if (updatePending) { return; }
+        updatePending = true;
+        PulseScheduler.schedule(updateTask);
+    }
+
+    private Pos computeSelectedAnchor() {
+        if (members.isEmpty()) { return null; }
+        int index = members.get(0).getModel().getSelectedIndex();
+        for (AnchorSelector member : members) {
+            if (member.getModel().getSelectedIndex() != index) { return null; }
+        }
+        return Anchor.POSITIONS[index];
+    }
+}
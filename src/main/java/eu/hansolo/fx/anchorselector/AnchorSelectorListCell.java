@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.RenderMode;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.util.Callback;
+
+import java.util.List;
+
+
+/**
+ * ListCell that shows a Pos in one AnchorSelector which is reused for
+ * every item the cell displays.
+ * The positions either are the items of a ListView of Pos, a selection
+ * then replaces the item, or come from a PackedAnchorColumn that is
+ * indexed by the item index, in that case the items can be of any type.
+ * By default the selector uses RenderMode.IMAGE, so the cells share the
+ * rendered images of the AnchorImageCache.
+ */
+public class AnchorSelectorListCell<T> extends ListCell<T> {
+    private final PackedAnchorColumn column;
+    private final CellSelector       cellSelector;
+
+
+    // ******************** Constructors **************************************
+    public AnchorSelectorListCell() {
+        this(null, RenderMode.IMAGE);
+    }
+    public AnchorSelectorListCell(final PackedAnchorColumn COLUMN) {
+        this(COLUMN, RenderMode.IMAGE);
+    }
+    public AnchorSelectorListCell(final PackedAnchorColumn COLUMN, final RenderMode RENDER_MODE) {
+        column       = COLUMN;
+        cellSelector = new CellSelector(null == RENDER_MODE ? RenderMode.IMAGE : RENDER_MODE, this::commit);
+        getStyleClass().add("anchor-selector-list-cell");
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setAlignment(Pos.CENTER);
+    }
+
+
+    // ******************** Methods *******************************************
+    public static Callback<ListView<Pos>, ListCell<Pos>> forListView() {
+        return listView -> new AnchorSelectorListCell<>();
+    }
+    public static <T> Callback<ListView<T>, ListCell<T>> forListView(final PackedAnchorColumn COLUMN) {
+        return listView -> new AnchorSelectorListCell<>(COLUMN);
+    }
+
+    public AnchorSelector getAnchorSelector() { return cellSelector.getSelector(); }
+
+    @Override protected void updateItem(final T ITEM, final boolean EMPTY) {
+        super.updateItem(ITEM, EMPTY);
+        Pos pos;
+        if (EMPTY) {
+            pos = null;
+        } else if (null == column) {
+            pos = ITEM instanceof Pos ? (Pos) ITEM : null;
+        } else {
+            pos = getIndex() < column.size() ? column.get(getIndex()) : null;
+        }
+        if (null == pos) {
+            setGraphic(null);
+        } else {
+            cellSelector.show(pos, isEditable() && (null == getListView() || getListView().isEditable()));
+            setGraphic(cellSelector.getSelector());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void commit(final Pos POS) {
+        if (null != column) {
+            column.set(getIndex(), POS);
+        } else if (null != getListView()) {
+            ((List<Pos>) getListView().getItems()).set(getIndex(), POS);
+        }
+    }
+}
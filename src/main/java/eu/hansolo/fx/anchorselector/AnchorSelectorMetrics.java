@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Opt-in counters and timings of the layout, selection and CSS work of
+ * AnchorSelectors. Every selector has its own metrics which are also added
+ * to the global metrics of all selectors. Metrics are disabled by default,
+ * in that case recording an operation costs one volatile read.
+ * The metrics are written on the FX application thread and can be read
+ * from any thread by taking a snapshot.
+ */
+public final class AnchorSelectorMetrics {
+    public enum Operation { RESIZE, RESIZE_ANCHORS, SELECTION, STYLE }
+
+    static final         long                  NOT_MEASURED = Long.MIN_VALUE;
+    private static final Operation[]           OPERATIONS   = Operation.values();
+    private static final AnchorSelectorMetrics GLOBAL       = new AnchorSelectorMetrics(null);
+    private static volatile boolean            enabled;
+    private final        AnchorSelectorMetrics parent;
+    private final        AtomicLongArray       counts;
+    private final        AtomicLongArray       nanos;
+
+
+    // ******************** Constructors **************************************
+    AnchorSelectorMetrics() {
+        this(GLOBAL);
+    }
+    private AnchorSelectorMetrics(final AnchorSelectorMetrics PARENT) {
+        parent = PARENT;
+        counts = new AtomicLongArray(OPERATIONS.length);
+        nanos  = new AtomicLongArray(OPERATIONS.length);
+    }
+
+
+    // ******************** Methods *******************************************
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(final boolean ENABLED) { enabled = ENABLED; }
+
+    /**
+     * Returns the metrics aggregated over all AnchorSelectors.
+     */
+    public static AnchorSelectorMetrics global() { return GLOBAL; }
+
+    public Snapshot snapshot() {
+        long[] countValues = new long[OPERATIONS.length];
+        long[] nanoValues  = new long[OPERATIONS.length];
+        for (int i = 0 ; i < OPERATIONS.length ; i++) {
+            countValues[i] = counts.get(i);
+            nanoValues[i]  = nanos.get(i);
+        }
+        return new Snapshot(countValues, nanoValues);
+    }
+
+    public void reset() {
+        for (int i = 0 ; i < OPERATIONS.length ; i++) {
+            counts.set(i, 0);
+            nanos.set(i, 0);
+        }
+    }
+
+    /**
+     * Returns the start time of an operation that is passed to record()
+     * when it is done.
+     */
+    static long start() { return enabled ? System.nanoTime() : NOT_MEASURED; }
+
+    void record(final Operation OPERATION, final long START) {
+        if (NOT_MEASURED == START) { return; }
+        long duration = System.nanoTime() - START;
+        for (AnchorSelectorMetrics metrics = this ; null != metrics ; metrics = metrics.parent) {
+            metrics.counts.incrementAndGet(OPERATION.ordinal());
+            metrics.nanos.addAndGet(OPERATION.ordinal(), duration);
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Immutable copy of the metrics at the time it was taken. The count and
+     * the time of one operation are read one after the other, so they can
+     * be off by the operation that was recorded in between.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long[] nanos;
+
+
+        private Snapshot(final long[] COUNTS, final long[] NANOS) {
+            counts = COUNTS;
+            nanos  = NANOS;
+        }
+
+
+        public long getCount(final Operation OPERATION) { return counts[OPERATION.ordinal()]; }
+
+        public long getTotalTime(final Operation OPERATION, final TimeUnit UNIT) { return UNIT.convert(nanos[OPERATION.ordinal()], TimeUnit.NANOSECONDS); }
+
+        public double getAverageNanos(final Operation OPERATION) {
+            long count = counts[OPERATION.ordinal()];
+            return 0 == count ? 0 : (double) nanos[OPERATION.ordinal()] / count;
+        }
+
+        @Override public String toString() {
+            StringBuilder builder = new StringBuilder("AnchorSelectorMetrics[");
+            for (Operation operation : OPERATIONS) {
+                if (operation.ordinal() > 0) { builder.append(", "); }
+                builder.append(operation).append(": ").append(getCount(operation)).append(" x ").append(Math.round(getAverageNanos(operation))).append(" ns");
+            }
+            return builder.append("]").toString();
+        }
+    }
+}
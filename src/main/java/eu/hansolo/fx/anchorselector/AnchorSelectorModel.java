@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Headless selection state of an AnchorSelector. It does not depend on the
+ * scene graph and can be read and written from any thread. Updates are
+ * lock-free (compare-and-set), listeners are called on the thread that
+ * made the change. With concurrent writers the notifications may arrive
+ * out of order, so listeners should read the model for the latest value.
+ */
+public class AnchorSelectorModel {
+    private static final SelectionListener[] NO_LISTENERS = new SelectionListener[0];
+    private final        AtomicInteger       selectedIndex;
+    // Copied on write, so notifying the listeners neither locks nor allocates
+    private volatile     SelectionListener[] listeners;
+
+
+    // ******************** Constructors **************************************
+    public AnchorSelectorModel() {
+        this(Pos.TOP_LEFT);
+    }
+    public AnchorSelectorModel(final Pos POS) {
+        int index = Anchor.indexOf(POS);
+        if (index < 0) { throw new IllegalArgumentException("Not possible to select given position"); }
+        selectedIndex = new AtomicInteger(index);
+        listeners     = NO_LISTENERS;
+    }
+
+
+    // ******************** Methods *******************************************
+    public Pos getSelectedAnchor() { return Anchor.POSITIONS[selectedIndex.get()]; }
+    public void setSelectedAnchor(final Pos POS) { setSelectedIndex(toIndex(POS), null); }
+
+    /**
+     * Atomically sets the selected anchor to the given position if the
+     * current selection is the expected one.
+     */
+    public boolean compareAndSetSelectedAnchor(final Pos EXPECTED, final Pos POS) {
+        int expected = toIndex(EXPECTED);
+        int index    = toIndex(POS);
+        if (expected == index) { return selectedIndex.get() == expected; }
+        if (!selectedIndex.compareAndSet(expected, index)) { return false; }
+        fireSelectionChanged(expected, index, null);
+        return true;
+    }
+
+    public synchronized void addSelectionListener(final SelectionListener LISTENER) {
+        if (null == LISTENER || indexOf(LISTENER) > -1) { return; }
+        SelectionListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = LISTENER;
+        listeners = newListeners;
+    }
+    public synchronized void removeSelectionListener(final SelectionListener LISTENER) {
+        int index = indexOf(LISTENER);
+        if (index < 0) { return; }
+        SelectionListener[] newListeners = 1 == listeners.length ? NO_LISTENERS : new SelectionListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, newListeners, 0, index);
+        System.arraycopy(listeners, index + 1, newListeners, index, listeners.length - index - 1);
+        listeners = newListeners;
+    }
+
+    int getSelectedIndex() { return selectedIndex.get(); }
+
+    int getListenerCount() { return listeners.length; }
+
+    /**
+     * Sets the selected index and notifies all listeners except the given
+     * source, which already knows about the change.
+     */
+    void setSelectedIndex(final int INDEX, final SelectionListener SOURCE) {
+        int oldIndex;
+        do {
+            oldIndex = selectedIndex.get();
+            if (oldIndex == INDEX) { return; }
+        } while (!selectedIndex.compareAndSet(oldIndex, INDEX));
+        fireSelectionChanged(oldIndex, INDEX, SOURCE);
+    }
+
+    private void fireSelectionChanged(final int OLD_INDEX, final int NEW_INDEX, final SelectionListener SOURCE) {
+        Pos oldPos = Anchor.POSITIONS[OLD_INDEX];
+        Pos newPos = Anchor.POSITIONS[NEW_INDEX];
+        for (SelectionListener listener : listeners) {
+            if (listener != SOURCE) { listener.onSelectionChanged(this, oldPos, newPos); }
+        }
+    }
+
+    private int indexOf(final SelectionListener LISTENER) {
+        for (int i = 0 ; i < listeners.length ; i++) {
+            if (listeners[i].equals(LISTENER)) { return i; }
+        }
+        return -1;
+    }
+
+    private static int toIndex(final Pos POS) {
+        int index = Anchor.indexOf(POS);
+        if (index < 0) { throw new IllegalArgumentException("Not possible to select given position"); }
+        return index;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    @FunctionalInterface public interface SelectionListener {
+        void onSelectionChanged(AnchorSelectorModel model, Pos oldPos, Pos newPos);
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.ColorMode;
+import eu.hansolo.fx.anchorselector.AnchorSelectorMetrics.Operation;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.css.StyleOrigin;
+import javafx.css.StyleableProperty;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+
+
+/**
+ * Default skin of the AnchorSelector, shows a background and one Anchor
+ * per position. The shapes are styled by the anchorselector.css
+ * stylesheet or filled directly in ColorMode.DIRECT. While a selection
+ * transition is in flight the anchor fills are interpolated by the skin in
+ * both modes, in ColorMode.CSS the fill is bound for the transition, so
+ * that the stylesheet cannot override it, and is handed back to the
+ * stylesheet once the anchor settled.
+ */
+public class AnchorSelectorSkin extends AbstractAnchorSelectorSkin {
+    private Pane                    pane;
+    private Rectangle               background;
+    private Anchor[]                anchors;
+    private double[]                geometry;
+    private Color                   hoverColor;
+    private int                     dirtyMask;
+    private double[]                selectionAmounts;
+    private boolean                 animationRunning;
+    private int                     transitionFillMask;
+    private ObjectProperty<Paint>[] transitionFills;
+
+
+    // ******************** Constructors **************************************
+    public AnchorSelectorSkin(final AnchorSelector CONTROL) {
+        super(CONTROL);
+        animatedChanged();
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override Node createContent() {
+        AnchorSelector control = getSkinnable();
+
+        background = new Rectangle(56, 56);
+        background.getStyleClass().add("background");
+
+        // The mouse input bubbles up to the control which maps it to the grid cells. The anchors are
+        // mouse transparent, otherwise they would get the :hover pseudo class only when the mouse is
+        // over the anchor and not over its cell
+        anchors = new Anchor[Anchor.POSITIONS.length];
+        for (int i = 0 ; i < anchors.length ; i++) {
+            anchors[i] = new Anchor(Anchor.POSITIONS[i], 8, 8);
+            anchors[i].getStyleClass().add("anchor");
+            anchors[i].setMouseTransparent(true);
+        }
+        int selectionMask = control.getSelectionMask();
+        for (int i = 0 ; i < anchors.length ; i++) { anchors[i].setActive(isSelected(selectionMask, i)); }
+
+        pane = new Pane(background);
+        pane.getChildren().addAll(anchors);
+
+        if (ColorMode.DIRECT == control.getColorMode()) { applyFills(); }
+        return pane;
+    }
+
+    @Override void resize() {
+        long start = AnchorSelectorMetrics.start();
+        geometry = AnchorGeometry.of(size, renderScale);
+        pane.resize(size, size);
+
+        background.setWidth(geometry[AnchorGeometry.BACKGROUND_SIZE]);
+        background.setHeight(geometry[AnchorGeometry.BACKGROUND_SIZE]);
+        background.relocate(geometry[AnchorGeometry.BACKGROUND_XY], geometry[AnchorGeometry.BACKGROUND_XY]);
+
+        resizeAnchors();
+        dirtyMask = AnchorMask.NONE;
+        getSkinnable().recordMetrics(Operation.RESIZE, start);
+    }
+
+    @Override void layoutSelection() {
+        if (null == selectionAmounts) {
+            int selectionMask = getSkinnable().getSelectionMask();
+            for (int dirty = dirtyMask ; dirty != AnchorMask.NONE ; dirty = AnchorMask.withoutFirst(dirty)) {
+                int index = Integer.numberOfTrailingZeros(dirty);
+                layoutAnchor(index, isSelected(selectionMask, index));
+            }
+        }
+        dirtyMask = AnchorMask.NONE;
+    }
+
+    @Override void selectionChanged(final int CHANGED_MASK) {
+        if (null == anchors) { return; }
+        // Only the pseudo classes and fills of the changed anchors are updated, a transition keeps
+        // the current fill so that the stylesheet does not snap it to the new pseudo class
+        int     selectionMask = getSkinnable().getSelectionMask();
+        boolean direct        = ColorMode.DIRECT == getSkinnable().getColorMode();
+        for (int changed = CHANGED_MASK ; changed != AnchorMask.NONE ; changed = AnchorMask.withoutFirst(changed)) {
+            int index = Integer.numberOfTrailingZeros(changed);
+            anchors[index].setActive(isSelected(selectionMask, index));
+            if (null != selectionAmounts) {
+                fillTransition(index, direct);
+            } else if (direct) {
+                fillAnchor(index);
+            }
+        }
+        if (null != selectionAmounts) {
+            // The anchors are moved by the shared animation timer
+            if (!animationRunning) {
+                animationRunning = true;
+                SelectionAnimator.start(this);
+            }
+        } else {
+            // Anchors that changed earlier in the same pulse are laid out together on the next layout pass
+            dirtyMask     |= CHANGED_MASK;
+            selectionDirty = true;
+        }
+    }
+
+    @Override void hoverChanged(final int PREVIOUS_INDEX, final int INDEX) {
+        if (PREVIOUS_INDEX > -1) { anchors[PREVIOUS_INDEX].setHovered(false); }
+        if (INDEX > -1) { anchors[INDEX].setHovered(true); }
+        if (ColorMode.DIRECT == getSkinnable().getColorMode()) {
+            if (PREVIOUS_INDEX > -1) { fillAnchor(PREVIOUS_INDEX); }
+            if (INDEX > -1) { fillAnchor(INDEX); }
+        } else {
+            // Anchors in a transition are not filled by the stylesheet
+            if (PREVIOUS_INDEX > -1 && isSelected(transitionFillMask, PREVIOUS_INDEX)) { fillTransition(PREVIOUS_INDEX, false); }
+            if (INDEX > -1 && isSelected(transitionFillMask, INDEX)) { fillTransition(INDEX, false); }
+        }
+    }
+
+    @Override void colorsChanged() {
+        if (ColorMode.DIRECT == getSkinnable().getColorMode()) {
+            if (null != anchors) { applyFills(); }
+        } else {
+            hoverColor = AnchorPainter.deriveHoverColor(getSkinnable().getAnchorColor());
+            getSkinnable().setStyle();
+        }
+    }
+
+    @Override void colorModeChanged() {
+        // Without content the fills are applied when the content is created
+        if (null == anchors) { return; }
+        for (int mask = transitionFillMask ; mask != AnchorMask.NONE ; mask = AnchorMask.withoutFirst(mask)) { resetTransitionFill(Integer.numberOfTrailingZeros(mask)); }
+        if (ColorMode.DIRECT == getSkinnable().getColorMode()) {
+            applyFills();
+        } else {
+            // Hand the fills back to the stylesheet, anchors in a transition take them over again on the next step
+            resetFill(background);
+            for (Anchor anchor : anchors) { resetFill(anchor); }
+            getSkinnable().setStyle();
+        }
+    }
+
+    @Override void animatedChanged() {
+        if (getSkinnable().isAnimated()) {
+            if (null != selectionAmounts) { return; }
+            if (ColorMode.CSS == getSkinnable().getColorMode()) {
+                // The transitions interpolate between the styled colors of the selector
+                getSkinnable().inflateColorProperties();
+                hoverColor = AnchorPainter.deriveHoverColor(getSkinnable().getAnchorColor());
+            }
+            selectionAmounts = new double[Anchor.POSITIONS.length];
+            int selectionMask = getSkinnable().getSelectionMask();
+            for (int i = 0 ; i < selectionAmounts.length ; i++) { selectionAmounts[i] = isSelected(selectionMask, i) ? 1 : 0; }
+        } else {
+            stopAnimation();
+            selectionAmounts = null;
+            // Snap a transition that was in flight
+            if (null != anchors) {
+                resizeAnchors();
+                if (ColorMode.DIRECT == getSkinnable().getColorMode()) { applyFills(); }
+                for (int mask = transitionFillMask ; mask != AnchorMask.NONE ; mask = AnchorMask.withoutFirst(mask)) { resetTransitionFill(Integer.numberOfTrailingZeros(mask)); }
+            }
+        }
+    }
+
+    @Override void disconnect() {
+        super.disconnect();
+        stopAnimation();
+    }
+
+    /**
+     * Moves every anchor the given step towards its selected or unselected
+     * state, returns false when there is nothing left to animate.
+     */
+    boolean stepAnimation(final double STEP) {
+        if (null == selectionAmounts || null == anchors) {
+            animationRunning = false;
+            return false;
+        }
+        int     selectionMask = getSkinnable().getSelectionMask();
+        boolean direct        = ColorMode.DIRECT == getSkinnable().getColorMode();
+        boolean running       = false;
+        for (int i = 0 ; i < selectionAmounts.length ; i++) {
+            double target = isSelected(selectionMask, i) ? 1 : 0;
+            double amount = selectionAmounts[i];
+            if (amount == target) {
+                // The selection might have changed back before the first step
+                resetTransitionFill(i);
+                continue;
+            }
+            amount = target > amount ? Math.min(target, amount + STEP) : Math.max(target, amount - STEP);
+            selectionAmounts[i] = amount;
+            layoutAnchor(i, amount);
+            if (amount != target) {
+                fillTransition(i, direct);
+                running = true;
+            } else if (direct) {
+                fillAnchor(i);
+            } else {
+                resetTransitionFill(i);
+            }
+        }
+        animationRunning = running;
+        return running;
+    }
+
+    private void stopAnimation() {
+        if (!animationRunning) { return; }
+        SelectionAnimator.stop(this);
+        animationRunning = false;
+    }
+
+    private double selectionAmount(final int INDEX) {
+        if (null == selectionAmounts) { return isSelected(getSkinnable().getSelectionMask(), INDEX) ? 1 : 0; }
+        return selectionAmounts[INDEX];
+    }
+
+    private void resizeAnchors() {
+        long                                    start = AnchorSelectorMetrics.start();
+        AnchorSelectorEvents.ResizeAnchorsEvent event = AnchorSelectorEvents.beginResizeAnchors();
+        for (int i = 0 ; i < anchors.length ; i++) { layoutAnchor(i, selectionAmount(i)); }
+        getSkinnable().recordMetrics(Operation.RESIZE_ANCHORS, start);
+        AnchorSelectorEvents.endResizeAnchors(event, size);
+    }
+
+    private void layoutAnchor(final int INDEX, final boolean SELECTED) { layoutAnchor(INDEX, SELECTED ? 1 : 0); }
+    /**
+     * Lays out the anchor between its unselected (0) and selected (1) size.
+     */
+    private void layoutAnchor(final int INDEX, final double AMOUNT) {
+        if (null == geometry) { return; }
+        int    from     = AnchorGeometry.anchor(INDEX, false);
+        int    to       = AnchorGeometry.anchor(INDEX, true);
+        double eased    = AMOUNT * AMOUNT * (3 - 2 * AMOUNT);
+        double anchorSz = interpolate(geometry[from + AnchorGeometry.ANCHOR_SIZE], geometry[to + AnchorGeometry.ANCHOR_SIZE], eased);
+        Anchor anchor   = anchors[INDEX];
+        anchor.setWidth(anchorSz);
+        anchor.setHeight(anchorSz);
+        anchor.relocate(interpolate(geometry[from + AnchorGeometry.ANCHOR_X], geometry[to + AnchorGeometry.ANCHOR_X], eased),
+                        interpolate(geometry[from + AnchorGeometry.ANCHOR_Y], geometry[to + AnchorGeometry.ANCHOR_Y], eased));
+    }
+
+    // Returns exactly the pixel snapped table values when the animation is settled
+    private static double interpolate(final double FROM, final double TO, final double AMOUNT) {
+        if (AMOUNT <= 0) { return FROM; }
+        if (AMOUNT >= 1) { return TO; }
+        return FROM + (TO - FROM) * AMOUNT;
+    }
+
+    private void applyFills() {
+        AnchorSelector control = getSkinnable();
+        hoverColor = AnchorPainter.deriveHoverColor(control.getAnchorColor());
+        background.setFill(control.getBackgroundColor());
+        for (int i = 0 ; i < anchors.length ; i++) { fillAnchor(i); }
+    }
+
+    private void fillAnchor(final int INDEX) { anchors[INDEX].setFill(anchorFill(INDEX)); }
+
+    private Color anchorFill(final int INDEX) {
+        AnchorSelector control = getSkinnable();
+        Color          color   = INDEX == hoveredIndex ? hoverColor : control.getAnchorColor();
+        double         amount  = selectionAmount(INDEX);
+        if (amount >= 1) {
+            color = control.getSelectedAnchorColor();
+        } else if (amount > 0) {
+            color = color.interpolate(control.getSelectedAnchorColor(), amount);
+        }
+        return color;
+    }
+
+    /**
+     * Fills an anchor of a transition. In ColorMode.CSS the fill is bound
+     * until resetTransitionFill hands it back, a fill that is only set would
+     * be overridden by the colors of the inline style.
+     */
+    @SuppressWarnings("unchecked")
+    private void fillTransition(final int INDEX, final boolean DIRECT) {
+        if (DIRECT) {
+            fillAnchor(INDEX);
+            return;
+        }
+        if (null == transitionFills) { transitionFills = new ObjectProperty[anchors.length]; }
+        if (null == transitionFills[INDEX]) { transitionFills[INDEX] = new SimpleObjectProperty<>(); }
+        transitionFills[INDEX].set(anchorFill(INDEX));
+        if (!isSelected(transitionFillMask, INDEX)) {
+            anchors[INDEX].fillProperty().bind(transitionFills[INDEX]);
+            transitionFillMask |= 1 << INDEX;
+        }
+    }
+
+    private void resetTransitionFill(final int INDEX) {
+        if (!isSelected(transitionFillMask, INDEX)) { return; }
+        transitionFillMask &= ~(1 << INDEX);
+        anchors[INDEX].fillProperty().unbind();
+        resetFill(anchors[INDEX]);
+        // The pseudo classes changed while the fill was overridden, so the stylesheet has to be applied again
+        anchors[INDEX].applyCss();
+    }
+
+    private static boolean isSelected(final int SELECTION_MASK, final int INDEX) { return 0 != (SELECTION_MASK & 1 << INDEX); }
+
+    @SuppressWarnings("unchecked")
+    private void resetFill(final Shape SHAPE) {
+        ((StyleableProperty<Paint>) SHAPE.fillProperty()).applyStyle(StyleOrigin.USER_AGENT, SHAPE.getFill());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.RenderMode;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WritableValue;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+
+/**
+ * TableCell that shows the Pos of its row in one AnchorSelector which is
+ * reused for every row the cell displays.
+ * The positions either come from the cell value factory of the column,
+ * a selection is then written back if the cell value is a WritableValue,
+ * or from a PackedAnchorColumn that is indexed by the row index.
+ * By default the selector uses RenderMode.IMAGE, so the cells share the
+ * rendered images of the AnchorImageCache.
+ */
+public class AnchorSelectorTableCell<S> extends TableCell<S, Pos> {
+    private final PackedAnchorColumn column;
+    private final CellSelector       cellSelector;
+
+
+    // ******************** Constructors **************************************
+    public AnchorSelectorTableCell() {
+        this(null, RenderMode.IMAGE);
+    }
+    public AnchorSelectorTableCell(final PackedAnchorColumn COLUMN) {
+        this(COLUMN, RenderMode.IMAGE);
+    }
+    public AnchorSelectorTableCell(final PackedAnchorColumn COLUMN, final RenderMode RENDER_MODE) {
+        column       = COLUMN;
+        cellSelector = new CellSelector(null == RENDER_MODE ? RenderMode.IMAGE : RENDER_MODE, this::commit);
+        getStyleClass().add("anchor-selector-table-cell");
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setAlignment(Pos.CENTER);
+    }
+
+
+    // ******************** Methods *******************************************
+    public static <S> Callback<TableColumn<S, Pos>, TableCell<S, Pos>> forTableColumn() {
+        return tableColumn -> new AnchorSelectorTableCell<>();
+    }
+    public static <S> Callback<TableColumn<S, Pos>, TableCell<S, Pos>> forTableColumn(final PackedAnchorColumn COLUMN) {
+        return tableColumn -> new AnchorSelectorTableCell<>(COLUMN);
+    }
+
+    public AnchorSelector getAnchorSelector() { return cellSelector.getSelector(); }
+
+    @Override protected void updateItem(final Pos ITEM, final boolean EMPTY) {
+        super.updateItem(ITEM, EMPTY);
+        Pos pos = EMPTY ? null : null == column ? ITEM : getIndex() < column.size() ? column.get(getIndex()) : null;
+        if (null == pos) {
+            setGraphic(null);
+        } else {
+            cellSelector.show(pos, isCellEditable());
+            setGraphic(cellSelector.getSelector());
+        }
+    }
+
+    private boolean isCellEditable() {
+        return isEditable() && (null == getTableView() || getTableView().isEditable()) && (null == getTableColumn() || getTableColumn().isEditable());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void commit(final Pos POS) {
+        if (null != column) {
+            column.set(getIndex(), POS);
+        } else if (null != getTableColumn()) {
+            ObservableValue<Pos> value = getTableColumn().getCellObservableValue(getIndex());
+            if (value instanceof WritableValue) { ((WritableValue<Pos>) value).setValue(POS); }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.scene.paint.Color;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+
+/**
+ * Writes and reads the state of many selectors to and from a ByteBuffer,
+ * which can also be a direct or a memory mapped buffer. A selection is
+ * stored in one byte, the index of the anchor in row-major order
+ * (TOP_LEFT = 0 ... BOTTOM_RIGHT = 8). A state is the selection followed by
+ * the background, anchor and selected anchor color as ARGB ints in the
+ * byte order of the buffer, STATE_BYTES per selector.
+ * The states are written and read at the position of the buffer in one
+ * pass without allocating anything per state, a color is only created
+ * when it differs from the color read before it. Reading stops with an
+ * IllegalArgumentException at the first invalid selection, the states
+ * before it are already restored.
+ * AnchorSelectors have to be exported and imported on the FX application
+ * thread, models and columns on any thread.
+ */
+public final class AnchorStateCodec {
+    public static final int SELECTION_BYTES = 1;
+    public static final int STATE_BYTES     = SELECTION_BYTES + 3 * Integer.BYTES;
+
+
+    private AnchorStateCodec() {}
+
+
+    // ******************** Selections ****************************************
+    public static void exportSelections(final List<? extends AnchorSelector> SELECTORS, final ByteBuffer BUFFER) {
+        int count = SELECTORS.size();
+        checkRemaining(BUFFER, count * SELECTION_BYTES, true);
+        for (int i = 0 ; i < count ; i++) { BUFFER.put((byte) SELECTORS.get(i).getModel().getSelectedIndex()); }
+    }
+
+    public static void importSelections(final ByteBuffer BUFFER, final List<? extends AnchorSelector> SELECTORS) {
+        int count = SELECTORS.size();
+        checkRemaining(BUFFER, count * SELECTION_BYTES, false);
+        for (int i = 0 ; i < count ; i++) { SELECTORS.get(i).getModel().setSelectedIndex(readSelection(BUFFER), null); }
+    }
+
+    public static void exportModels(final List<? extends AnchorSelectorModel> MODELS, final ByteBuffer BUFFER) {
+        int count = MODELS.size();
+        checkRemaining(BUFFER, count * SELECTION_BYTES, true);
+        for (int i = 0 ; i < count ; i++) { BUFFER.put((byte) MODELS.get(i).getSelectedIndex()); }
+    }
+
+    public static void importModels(final ByteBuffer BUFFER, final List<? extends AnchorSelectorModel> MODELS) {
+        int count = MODELS.size();
+        checkRemaining(BUFFER, count * SELECTION_BYTES, false);
+        for (int i = 0 ; i < count ; i++) { MODELS.get(i).setSelectedIndex(readSelection(BUFFER), null); }
+    }
+
+    public static void exportColumn(final PackedAnchorColumn COLUMN, final ByteBuffer BUFFER) {
+        checkRemaining(BUFFER, COLUMN.size() * SELECTION_BYTES, true);
+        BUFFER.put(COLUMN.values());
+    }
+
+    /**
+     * Reads one selection per row of the column, call refresh() on the
+     * table or list view afterwards.
+     */
+    public static void importColumn(final ByteBuffer BUFFER, final PackedAnchorColumn COLUMN) {
+        byte[] values = COLUMN.values();
+        checkRemaining(BUFFER, values.length * SELECTION_BYTES, false);
+        for (int i = 0 ; i < values.length ; i++) { values[i] = (byte) readSelection(BUFFER); }
+    }
+
+
+    // ******************** States ********************************************
+    public static void exportStates(final List<? extends AnchorSelector> SELECTORS, final ByteBuffer BUFFER) {
+        int count = SELECTORS.size();
+        checkRemaining(BUFFER, count * STATE_BYTES, true);
+        for (int i = 0 ; i < count ; i++) {
+            AnchorSelector selector = SELECTORS.get(i);
+            BUFFER.put((byte) selector.getModel().getSelectedIndex());
+            BUFFER.putInt(toArgb(selector.getBackgroundColor()));
+            BUFFER.putInt(toArgb(selector.getAnchorColor()));
+            BUFFER.putInt(toArgb(selector.getSelectedAnchorColor()));
+        }
+    }
+
+    /**
+     * Reads the states into the selectors, the colors of a selector are only
+     * set if one of them differs from its current colors.
+     */
+    public static void importStates(final ByteBuffer BUFFER, final List<? extends AnchorSelector> SELECTORS) {
+        int count = SELECTORS.size();
+        checkRemaining(BUFFER, count * STATE_BYTES, false);
+        // Documents use few colors, so a color is mostly the same as the one read before
+        Color[] colors = new Color[3];
+        int[]   argbs  = new int[3];
+        for (int i = 0 ; i < count ; i++) {
+            AnchorSelector selector = SELECTORS.get(i);
+            selector.getModel().setSelectedIndex(readSelection(BUFFER), null);
+            int background     = BUFFER.getInt();
+            int anchor         = BUFFER.getInt();
+            int selectedAnchor = BUFFER.getInt();
+            if (background == toArgb(selector.getBackgroundColor()) && anchor == toArgb(selector.getAnchorColor()) &&
+                selectedAnchor == toArgb(selector.getSelectedAnchorColor())) { continue; }
+            selector.setColors(color(colors, argbs, 0, background), color(colors, argbs, 1, anchor), color(colors, argbs, 2, selectedAnchor));
+        }
+    }
+
+
+    // ******************** Colors ********************************************
+    public static int toArgb(final Color COLOR) {
+        return (int) Math.round(COLOR.getOpacity() * 255) << 24 |
+               (int) Math.round(COLOR.getRed() * 255) << 16 |
+               (int) Math.round(COLOR.getGreen() * 255) << 8 |
+               (int) Math.round(COLOR.getBlue() * 255);
+    }
+
+    public static Color fromArgb(final int ARGB) {
+        return Color.rgb(ARGB >> 16 & 0xFF, ARGB >> 8 & 0xFF, ARGB & 0xFF, (ARGB >>> 24) / 255.0);
+    }
+
+
+    private static Color color(final Color[] COLORS, final int[] ARGBS, final int SLOT, final int ARGB) {
+        if (null == COLORS[SLOT] || ARGB != ARGBS[SLOT]) {
+            COLORS[SLOT] = fromArgb(ARGB);
+            ARGBS[SLOT]  = ARGB;
+        }
+        return COLORS[SLOT];
+    }
+
+    private static int readSelection(final ByteBuffer BUFFER) {
+        int position = BUFFER.position();
+        int index    = BUFFER.get();
+        if (index < 0 || index >= Anchor.POSITIONS.length) { throw new IllegalArgumentException("Invalid selection " + index + " at position " + position); }
+        return index;
+    }
+
+    // Fails before anything was written or read, instead of in the middle
+    private static void checkRemaining(final ByteBuffer BUFFER, final int BYTES, final boolean WRITE) {
+        if (BUFFER.remaining() >= BYTES) { return; }
+        if (WRITE) { throw new BufferOverflowException(); }
+        throw new BufferUnderflowException();
+    }
+}
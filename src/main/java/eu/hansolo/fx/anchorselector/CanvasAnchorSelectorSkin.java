@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+
+/**
+ * Draws the AnchorSelector into a single Canvas, the default skin of
+ * RenderMode.CANVAS. Can also be set with
+ * -fx-skin: "eu.hansolo.fx.anchorselector.CanvasAnchorSelectorSkin".
+ */
+public class CanvasAnchorSelectorSkin extends PaintedAnchorSelectorSkin {
+    private Canvas          canvas;
+    private GraphicsContext ctx;
+
+
+    // ******************** Constructors **************************************
+    public CanvasAnchorSelectorSkin(final AnchorSelector CONTROL) {
+        super(CONTROL);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override Node createContent() {
+        canvas = new Canvas(size, size);
+        ctx    = canvas.getGraphicsContext2D();
+        return canvas;
+    }
+
+    @Override void resizeContent() {
+        canvas.setWidth(size);
+        canvas.setHeight(size);
+    }
+
+    @Override void draw() {
+        if (size <= 0 || null == canvas) { return; }
+        AnchorSelector control = getSkinnable();
+        AnchorPainter.paint(ctx, size, control.getBackgroundColor(), control.getAnchorColor(), control.getSelectedAnchorColor(),
+                            control.getSelectionMask(), hoveredIndex);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.RenderMode;
+import javafx.geometry.Pos;
+
+import java.util.function.Consumer;
+
+
+/**
+ * The one AnchorSelector of a table or list cell. Showing the position of
+ * another row only changes the selection of its model, no nodes are
+ * created and no listeners are added. Selections made by the user are
+ * passed to the given consumer.
+ */
+final class CellSelector {
+    static final  double         SIZE = 32;
+    private final AnchorSelector selector;
+    private       boolean        updating;
+
+
+    CellSelector(final RenderMode RENDER_MODE, final Consumer<Pos> ON_SELECTION) {
+        selector = new AnchorSelector(RENDER_MODE);
+        selector.setPrefSize(SIZE, SIZE);
+        selector.getModel().addSelectionListener((model, oldPos, newPos) -> {
+            if (!updating) { ON_SELECTION.accept(newPos); }
+        });
+    }
+
+
+    AnchorSelector getSelector() { return selector; }
+
+    void show(final Pos POS, final boolean EDITABLE) {
+        updating = true;
+        try {
+            selector.getModel().setSelectedAnchor(POS);
+        } finally {
+            updating = false;
+        }
+        selector.setDisable(!EDITABLE);
+    }
+}
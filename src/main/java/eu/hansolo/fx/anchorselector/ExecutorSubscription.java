@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+
+/**
+ * Delivers the selected anchor of a model to a consumer on an executor.
+ * At most one task per subscription is handed to the executor at any
+ * time and it delivers the value of the model when it runs, so a slow
+ * consumer skips intermediate values instead of building up a queue.
+ */
+final class ExecutorSubscription implements AnchorSelector.Subscription, AnchorSelectorModel.SelectionListener {
+    private final    AnchorSelectorModel                   model;
+    private final    Executor                              executor;
+    private final    Consumer<Pos>                         consumer;
+    private final    Consumer<AnchorSelector.Subscription> onUnsubscribe;
+    private final    AtomicBoolean                         scheduled;
+    private volatile boolean                               subscribed;
+    private volatile Pos                                   lastDelivered;
+
+
+    ExecutorSubscription(final AnchorSelectorModel MODEL, final Executor EXECUTOR, final Consumer<Pos> CONSUMER,
+                         final Consumer<AnchorSelector.Subscription> ON_UNSUBSCRIBE) {
+        model         = MODEL;
+        executor      = EXECUTOR;
+        consumer      = CONSUMER;
+        onUnsubscribe = ON_UNSUBSCRIBE;
+        scheduled     = new AtomicBoolean(false);
+        subscribed    = true;
+        lastDelivered = MODEL.getSelectedAnchor();
+        MODEL.addSelectionListener(this);
+    }
+
+
+    @Override public void onSelectionChanged(final AnchorSelectorModel MODEL, final Pos OLD_POS, final Pos NEW_POS) { schedule(); }
+
+    @Override public boolean isSubscribed() { return subscribed; }
+
+    @Override public void unsubscribe() {
+        if (!subscribed) { return; }
+        subscribed = false;
+        model.removeSelectionListener(this);
+        onUnsubscribe.accept(this);
+    }
+
+    private void schedule() {
+        if (!subscribed || !scheduled.compareAndSet(false, true)) { return; }
+        try {
+            executor.execute(this::deliver);
+        } catch (RejectedExecutionException e) {
+            // The executor was shut down, there is nobody left to deliver to
+            scheduled.set(false);
+            unsubscribe();
+        }
+    }
+
+    private void deliver() {
+        try {
+            Pos pos = model.getSelectedAnchor();
+            if (subscribed && pos != lastDelivered) {
+                lastDelivered = pos;
+                consumer.accept(pos);
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        // Changes during the delivery did not schedule a task because this one was still running
+        if (model.getSelectedAnchor() != lastDelivered) { schedule(); }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.beans.DefaultProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.IntegerPropertyBase;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.collections.ObservableList;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Rectangle;
+
+
+/**
+ * An anchor selector with a grid of rows x columns anchors (e.g. 5x5 or 9x9
+ * for snapping). The geometry of all anchors is computed in one loop from
+ * the row and column fractions, the selection is exposed as index, row and
+ * column. The nine Pos values map to the corners, the edge centers and the
+ * center of the grid. A grid with an even number of rows has no center
+ * row, so the CENTER_LEFT, CENTER and CENTER_RIGHT positions do not exist
+ * on it, the same applies to the center column and the TOP_CENTER, CENTER
+ * and BOTTOM_CENTER positions on a grid with an even number of columns.
+ * The colors are taken from the -background-color,
+ * -anchor-color and -selected-anchor-color lookups in the stylesheet.
+ */
+@DefaultProperty("children")
+public class GridAnchorSelector extends Region {
+    private static final double                   PREFERRED_WIDTH  = 64;
+    private static final double                   PREFERRED_HEIGHT = 64;
+    private static final double                   MINIMUM_WIDTH    = 32;
+    private static final double                   MINIMUM_HEIGHT   = 32;
+    private static final double                   MAXIMUM_WIDTH    = 1024;
+    private static final double                   MAXIMUM_HEIGHT   = 1024;
+    private final        int                      rows;
+    private final        int                      columns;
+    private final        double[]                 rowFractions;
+    private final        double[]                 columnFractions;
+    private              double                   size;
+    private              double                   width;
+    private              double                   height;
+    private              double                   anchorSize;
+    private              double                   selectedAnchorSize;
+    private              double                   inset;
+    private              boolean                  sizeDirty;
+    private              boolean                  selectionDirty;
+    private              boolean                  insetsDirty;
+    private              int                      activeIndex;
+    private              int                      deselectedIndex;
+    private              int                      hoveredIndex;
+    private              int                      _selectedIndex;
+    private              IntegerProperty          selectedIndex;
+    private              Rectangle                background;
+    private              Cell[]                   cells;
+    private              Pane                     pane;
+    private              EventHandler<MouseEvent> mouseHandler;
+
+
+    // ******************** Constructors **************************************
+    public GridAnchorSelector() {
+        this(3, 3);
+    }
+    public GridAnchorSelector(final int ROWS, final int COLUMNS) {
+        if (ROWS < 2 || COLUMNS < 2) { throw new IllegalArgumentException("A grid needs at least 2 rows and 2 columns"); }
+        rows            = ROWS;
+        columns         = COLUMNS;
+        rowFractions    = createFractions(ROWS);
+        columnFractions = createFractions(COLUMNS);
+        activeIndex     = 0;
+        deselectedIndex = -1;
+        hoveredIndex    = -1;
+        _selectedIndex  = 0;
+        mouseHandler    = this::handleMouseEvent;
+        initGraphics();
+        registerListeners();
+    }
+
+
+    // ******************** Initialization ************************************
+    private void initGraphics() {
+        if (Double.compare(getPrefWidth(), 0.0) <= 0 || Double.compare(getPrefHeight(), 0.0) <= 0 || Double.compare(getWidth(), 0.0) <= 0 ||
+            Double.compare(getHeight(), 0.0) <= 0) {
+            if (getPrefWidth() > 0 && getPrefHeight() > 0) {
+                setPrefSize(getPrefWidth(), getPrefHeight());
+            } else {
+                setPrefSize(PREFERRED_WIDTH, PREFERRED_HEIGHT);
+            }
+        }
+
+        getStyleClass().addAll("anchor-selector", "grid-anchor-selector");
+
+        background = new Rectangle(56, 56);
+        background.getStyleClass().add("background");
+        background.setMouseTransparent(true);
+
+        cells = new Cell[rows * columns];
+        for (int i = 0 ; i < cells.length ; i++) { cells[i] = new Cell(); }
+        cells[activeIndex].setActive(true);
+
+        pane = new Pane(background);
+        pane.getChildren().addAll(cells);
+
+        getChildren().setAll(pane);
+    }
+
+    private void registerListeners() {
+        insetsProperty().addListener(o -> insetsDirty = true);
+        pane.addEventHandler(MouseEvent.ANY, mouseHandler);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public void layoutChildren() {
+        Insets insets    = getInsets();
+        double newWidth  = getWidth() - insets.getLeft() - insets.getRight();
+        double newHeight = getHeight() - insets.getTop() - insets.getBottom();
+        if (newWidth <= 0 || newHeight <= 0) { return; }
+
+        double newSize = newWidth < newHeight ? newWidth : newHeight;
+        if (Double.compare(newSize, size) != 0) {
+            size      = newSize;
+            sizeDirty = true;
+        }
+        if (Double.compare(newWidth, width) != 0 || Double.compare(newHeight, height) != 0) {
+            width       = newWidth;
+            height      = newHeight;
+            insetsDirty = true;
+        }
+
+        if (sizeDirty) {
+            resize();
+        } else if (selectionDirty) {
+            if (deselectedIndex > -1) { layoutCell(deselectedIndex, false); }
+            layoutCell(activeIndex, true);
+        }
+        if (sizeDirty || insetsDirty) {
+            pane.relocate(insets.getLeft() + (width - size) * 0.5, insets.getTop() + (height - size) * 0.5);
+        }
+
+        sizeDirty       = false;
+        selectionDirty  = false;
+        insetsDirty     = false;
+        deselectedIndex = -1;
+    }
+
+    @Override protected double computeMinWidth(final double HEIGHT) { return MINIMUM_WIDTH; }
+    @Override protected double computeMinHeight(final double WIDTH) { return MINIMUM_HEIGHT; }
+    @Override protected double computePrefWidth(final double HEIGHT) { return super.computePrefWidth(HEIGHT); }
+    @Override protected double computePrefHeight(final double WIDTH) { return super.computePrefHeight(WIDTH); }
+    @Override protected double computeMaxWidth(final double HEIGHT) { return MAXIMUM_WIDTH; }
+    @Override protected double computeMaxHeight(final double WIDTH) { return MAXIMUM_HEIGHT; }
+
+    @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
+
+    public int getRows() { return rows; }
+
+    public int getColumns() { return columns; }
+
+    public int getSelectedIndex() { return null == selectedIndex ? _selectedIndex : selectedIndex.get(); }
+    public ReadOnlyIntegerProperty selectedIndexProperty() {
+        if (null == selectedIndex) {
+            selectedIndex = new IntegerPropertyBase(_selectedIndex) {
+                @Override public Object getBean() { return GridAnchorSelector.this; }
+                @Override public String getName() { return "selectedIndex"; }
+            };
+        }
+        return selectedIndex;
+    }
+
+    public int getSelectedRow() { return getSelectedIndex() / columns; }
+
+    public int getSelectedColumn() { return getSelectedIndex() % columns; }
+
+    public void select(final int INDEX) {
+        if (INDEX < 0 || INDEX >= cells.length) { throw new IllegalArgumentException("Index " + INDEX + " is outside of the grid"); }
+        selectCell(INDEX);
+    }
+    public void select(final int ROW, final int COLUMN) {
+        if (ROW < 0 || ROW >= rows || COLUMN < 0 || COLUMN >= columns) { throw new IllegalArgumentException("Cell " + ROW + "/" + COLUMN + " is outside of the grid"); }
+        selectCell(ROW * columns + COLUMN);
+    }
+
+    /**
+     * Returns the Pos of the selected anchor if it is one of the corners,
+     * edge centers or the center of the grid, otherwise null. A grid with
+     * an even number of rows or columns has no center in that direction.
+     */
+    public Pos getSelectedAnchor() {
+        int row    = toPosCell(getSelectedRow(), rows);
+        int column = toPosCell(getSelectedColumn(), columns);
+        return row < 0 || column < 0 ? null : Anchor.POSITIONS[row * 3 + column];
+    }
+    public void select(final Pos POS) {
+        int index = Anchor.indexOf(POS);
+        if (index < 0) { throw new IllegalArgumentException("Not possible to select given position"); }
+        int row    = index / 3;
+        int column = index % 3;
+        if ((1 == row && 0 == rows % 2) || (1 == column && 0 == columns % 2)) {
+            throw new IllegalArgumentException(POS + " does not exist on a grid with " + rows + " rows and " + columns + " columns");
+        }
+        select(row * (rows - 1) / 2, column * (columns - 1) / 2);
+    }
+
+    public void dispose() {
+        pane.removeEventHandler(MouseEvent.ANY, mouseHandler);
+    }
+
+    private void handleMouseEvent(final MouseEvent EVT) {
+        final EventType<? extends MouseEvent> TYPE = EVT.getEventType();
+        if (MouseEvent.MOUSE_MOVED == TYPE) {
+            hoverCell(cellAt(EVT.getX(), EVT.getY()));
+        } else if (MouseEvent.MOUSE_PRESSED == TYPE || MouseEvent.MOUSE_DRAGGED == TYPE) {
+            int index = cellAt(EVT.getX(), EVT.getY());
+            if (MouseEvent.MOUSE_DRAGGED == TYPE && index == hoveredIndex) { return; }
+            hoverCell(index);
+            if (index > -1) { selectCell(index); }
+        } else if (MouseEvent.MOUSE_RELEASED == TYPE) {
+            hoverCell(cellAt(EVT.getX(), EVT.getY()));
+        } else if (MouseEvent.MOUSE_EXITED == TYPE && !EVT.isPrimaryButtonDown()) {
+            hoverCell(-1);
+        }
+    }
+
+    private void selectCell(final int INDEX) {
+        if (INDEX == activeIndex) { return; }
+        if (deselectedIndex > -1 && deselectedIndex != INDEX) { layoutCell(deselectedIndex, false); }
+        deselectedIndex = activeIndex;
+        cells[activeIndex].setActive(false);
+        cells[INDEX].setActive(true);
+        activeIndex = INDEX;
+        if (null == selectedIndex) {
+            _selectedIndex = INDEX;
+        } else {
+            selectedIndex.set(INDEX);
+        }
+        selectionDirty = true;
+        setNeedsLayout(true);
+    }
+
+    private void hoverCell(final int INDEX) {
+        if (INDEX == hoveredIndex) { return; }
+        if (hoveredIndex > -1) { cells[hoveredIndex].setHovered(false); }
+        hoveredIndex = INDEX;
+        if (hoveredIndex > -1) { cells[hoveredIndex].setHovered(true); }
+    }
+
+    private int cellAt(final double X, final double Y) {
+        if (size <= 0 || X < 0 || Y < 0 || X >= size || Y >= size) { return -1; }
+        return (int) (Y * rows / size) * columns + (int) (X * columns / size);
+    }
+
+    // Maps a row (or column) of the grid to the row (or column) of the 3x3 Pos grid or -1, only an odd number of cells has a center
+    private static int toPosCell(final int CELL, final int CELLS) {
+        if (0 == CELL)                             { return 0; }
+        if (CELLS - 1 == CELL)                     { return 2; }
+        if (1 == CELLS % 2 && CELLS / 2 == CELL)   { return 1; }
+        return -1;
+    }
+
+    private static double[] createFractions(final int CELLS) {
+        double[] fractions = new double[CELLS];
+        for (int i = 0 ; i < CELLS ; i++) { fractions[i] = i / (double) (CELLS - 1); }
+        return fractions;
+    }
+
+
+    // ******************** Style related *************************************
+    @Override public String getUserAgentStylesheet() { return AnchorSelector.USER_AGENT_STYLESHEET; }
+
+
+    // ******************** Resizing ******************************************
+    private void resize() {
+        // Same proportions as the AnchorSelector for a 3x3 grid
+        double scale       = 3.0 / Math.max(rows, columns);
+        anchorSize         = size * 0.125 * scale;
+        selectedAnchorSize = size * 0.15625 * scale;
+        inset              = size * 0.015625 * scale;
+
+        pane.resize(size, size);
+
+        background.setWidth(size * 0.84375);
+        background.setHeight(size * 0.84375);
+        background.relocate((size - background.getWidth()) * 0.5, (size - background.getHeight()) * 0.5);
+
+        for (int i = 0 ; i < cells.length ; i++) { layoutCell(i, i == activeIndex); }
+    }
+
+    private void layoutCell(final int INDEX, final boolean SELECTED) {
+        double cellSize  = SELECTED ? selectedAnchorSize : anchorSize;
+        double cellInset = SELECTED ? 0 : inset;
+        double range     = size - cellSize - 2 * cellInset;
+        Cell   cell      = cells[INDEX];
+        cell.setWidth(cellSize);
+        cell.setHeight(cellSize);
+        cell.relocate(cellInset + columnFractions[INDEX % columns] * range, cellInset + rowFractions[INDEX / columns] * range);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Cell extends Rectangle {
+        Cell() {
+            super(8, 8);
+            getStyleClass().add("anchor");
+            setMouseTransparent(true);
+        }
+
+        void setActive(final boolean ACTIVE) { pseudoClassStateChanged(Anchor.ACTIVE_PSEUDO_CLASS, ACTIVE); }
+
+        void setHovered(final boolean HOVERED) { setHover(HOVERED); }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+
+
+/**
+ * Shows the AnchorSelector as an image from the shared AnchorImageCache,
+ * the default skin of RenderMode.IMAGE. Can also be set with
+ * -fx-skin: "eu.hansolo.fx.anchorselector.ImageAnchorSelectorSkin".
+ */
+public class ImageAnchorSelectorSkin extends PaintedAnchorSelectorSkin {
+    private ImageView imageView;
+
+
+    // ******************** Constructors **************************************
+    public ImageAnchorSelectorSkin(final AnchorSelector CONTROL) {
+        super(CONTROL);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override Node createContent() {
+        // The images are shared with all other selectors that look the same, see AnchorImageCache
+        // The mouse input goes to the control which picks on its bounds, transparent pixels don't matter
+        imageView = new ImageView();
+        return imageView;
+    }
+
+    @Override void resizeContent() {
+        imageView.setFitWidth(size);
+        imageView.setFitHeight(size);
+    }
+
+    @Override void draw() {
+        if (size <= 0 || null == imageView) { return; }
+        AnchorSelector control = getSkinnable();
+        imageView.setImage(AnchorImageCache.get(size, renderScale, control.getBackgroundColor(), control.getAnchorColor(), control.getSelectedAnchorColor(),
+                                                control.getSelectionMask(), hoveredIndex));
+    }
+}
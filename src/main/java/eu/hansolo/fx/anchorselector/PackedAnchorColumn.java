@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+
+import java.util.Arrays;
+
+
+/**
+ * Selected anchors of the rows of a table or list, stored with one byte
+ * per row instead of one Pos property per row. Used by the
+ * AnchorSelectorTableCell and the AnchorSelectorListCell, which read and
+ * write the value of their row index. Changes made directly to the column
+ * are not observed by the cells, call refresh() on the table or list
+ * view after changing it.
+ */
+public final class PackedAnchorColumn {
+    private byte[] values;
+
+
+    // ******************** Constructors **************************************
+    public PackedAnchorColumn(final int ROWS) {
+        this(ROWS, Pos.TOP_LEFT);
+    }
+    public PackedAnchorColumn(final int ROWS, final Pos POS) {
+        if (ROWS < 0) { throw new IllegalArgumentException("Number of rows cannot be negative"); }
+        values = new byte[ROWS];
+        fill(POS);
+    }
+
+
+    // ******************** Methods *******************************************
+    public int size() { return values.length; }
+
+    /**
+     * Changes the number of rows, new rows get the given position.
+     */
+    public void setSize(final int ROWS, final Pos POS) {
+        if (ROWS < 0) { throw new IllegalArgumentException("Number of rows cannot be negative"); }
+        int oldSize = values.length;
+        values = Arrays.copyOf(values, ROWS);
+        if (ROWS > oldSize) { Arrays.fill(values, oldSize, ROWS, toByte(POS)); }
+    }
+
+    public Pos get(final int ROW) { return Anchor.POSITIONS[values[ROW]]; }
+
+    public void set(final int ROW, final Pos POS) { values[ROW] = toByte(POS); }
+
+    public void fill(final Pos POS) { Arrays.fill(values, toByte(POS)); }
+
+    // The values are read and written in bulk by the AnchorStateCodec
+    byte[] values() { return values; }
+
+    private static byte toByte(final Pos POS) {
+        int index = Anchor.indexOf(POS);
+        if (index < 0) { throw new IllegalArgumentException("Not possible to select given position"); }
+        return (byte) index;
+    }
+}
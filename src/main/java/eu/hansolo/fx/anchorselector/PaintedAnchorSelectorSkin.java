@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelectorMetrics.Operation;
+
+
+/**
+ * Base of the skins that paint the whole selector at once instead of
+ * using a node per anchor. They read the colors from the control, so the
+ * color properties are created when such a skin is installed.
+ */
+abstract class PaintedAnchorSelectorSkin extends AbstractAnchorSelectorSkin {
+
+    // ******************** Constructors **************************************
+    PaintedAnchorSelectorSkin(final AnchorSelector CONTROL) {
+        super(CONTROL);
+        CONTROL.inflateColorProperties();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Resizes the content to the current size, it is drawn afterwards.
+     */
+    abstract void resizeContent();
+
+    abstract void draw();
+
+    @Override void resize() {
+        long start = AnchorSelectorMetrics.start();
+        resizeContent();
+        draw();
+        getSkinnable().recordMetrics(Operation.RESIZE, start);
+    }
+
+    @Override void layoutSelection() { draw(); }
+
+    @Override void selectionChanged(final int CHANGED_MASK) { selectionDirty = true; }
+
+    @Override void hoverChanged(final int PREVIOUS_INDEX, final int INDEX) { draw(); }
+
+    @Override void colorsChanged() { draw(); }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Runs tasks on the FX application thread at the beginning of the next
+ * pulse. Tasks can be scheduled from any thread. One shared AnimationTimer
+ * is used for all tasks and it is stopped as soon as there is nothing left
+ * to do, so an idle scheduler does not cause any pulses.
+ * Callers are responsible to schedule a task only once per pulse
+ * (e.g. guarded by an AtomicBoolean), which gives latest-value-wins
+ * coalescing if the task reads the current state when it runs.
+ */
+final class PulseScheduler {
+    private static final Queue<Runnable> TASKS   = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean   RUNNING = new AtomicBoolean(false);
+    private static       AnimationTimer  timer;
+
+
+    private PulseScheduler() {}
+
+
+    static void schedule(final Runnable TASK) {
+        TASKS.add(TASK);
+        if (RUNNING.compareAndSet(false, true)) {
+            if (Platform.isFxApplicationThread()) {
+                startTimer();
+            } else {
+                Platform.runLater(PulseScheduler::startTimer);
+            }
+        }
+    }
+
+    private static void startTimer() {
+        if (null == timer) {
+            timer = new AnimationTimer() {
+                @Override public void handle(final long NOW) { runTasks(); }
+            };
+        }
+        timer.start();
+    }
+
+    private static void runTasks() {
+        // Tasks that are scheduled while running will be executed in the next pulse
+        for (int i = TASKS.size() ; i > 0 ; i--) {
+            Runnable task = TASKS.poll();
+            if (null == task) { break; }
+            task.run();
+        }
+        if (TASKS.isEmpty()) {
+            timer.stop();
+            RUNNING.set(false);
+            // A task might have been added after the check above
+            if (!TASKS.isEmpty() && RUNNING.compareAndSet(false, true)) { timer.start(); }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Screen;
+import javafx.stage.Window;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+
+/**
+ * Looks up the render scale of the window a node is shown in.
+ * Window.getOutputScaleX() is only available on JavaFX 9 and newer, on
+ * JavaFX 8 the render scale of the screen the window is shown on is used,
+ * which is not public and read by reflection. Both are resolved once and
+ * 1.0 is used if neither exists.
+ * Every window a scale was looked up for gets one listener that requests a
+ * new layout of the selectors in it when its scale changes.
+ */
+final class RenderScale {
+    private static final Method               OUTPUT_SCALE_X          = lookup(Window.class, "getOutputScaleX");
+    private static final Method               OUTPUT_SCALE_X_PROPERTY = lookup(Window.class, "outputScaleXProperty");
+    private static final Method               SCREEN_RENDER_SCALE     = null == OUTPUT_SCALE_X ? lookupScreenRenderScale() : null;
+    // Only used on the FX application thread
+    private static final Map<Window, Boolean> TRACKED_WINDOWS         = new WeakHashMap<>();
+
+
+    private RenderScale() {}
+
+
+    static double of(final Node NODE) {
+        Scene  scene  = NODE.getScene();
+        Window window = null == scene ? null : scene.getWindow();
+        if (null == window) { return 1.0; }
+        track(window);
+        return of(window);
+    }
+
+    static double of(final Window WINDOW) {
+        Object scale;
+        if (null != OUTPUT_SCALE_X) {
+            scale = invoke(OUTPUT_SCALE_X, WINDOW);
+        } else if (null != SCREEN_RENDER_SCALE) {
+            List<Screen> screens = Screen.getScreensForRectangle(WINDOW.getX(), WINDOW.getY(), WINDOW.getWidth(), WINDOW.getHeight());
+            scale = invoke(SCREEN_RENDER_SCALE, screens.isEmpty() ? Screen.getPrimary() : screens.get(0));
+        } else {
+            return 1.0;
+        }
+        return scale instanceof Number && ((Number) scale).doubleValue() > 0 ? ((Number) scale).doubleValue() : 1.0;
+    }
+
+    private static void track(final Window WINDOW) {
+        if (null != TRACKED_WINDOWS.put(WINDOW, Boolean.TRUE)) { return; }
+        InvalidationListener listener = new ScaleListener(WINDOW);
+        Object               property = null == OUTPUT_SCALE_X_PROPERTY ? null : invoke(OUTPUT_SCALE_X_PROPERTY, WINDOW);
+        if (property instanceof Observable) {
+            ((Observable) property).addListener(listener);
+        } else {
+            // On JavaFX 8 the scale changes when the window is moved to a screen with another scale
+            WINDOW.xProperty().addListener(listener);
+            WINDOW.yProperty().addListener(listener);
+        }
+    }
+
+    private static Object invoke(final Method METHOD, final Object TARGET) {
+        try {
+            return METHOD.invoke(TARGET);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Method lookup(final Class<?> CLASS, final String NAME) {
+        try {
+            return CLASS.getMethod(NAME);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method lookupScreenRenderScale() {
+        for (String name : new String[] { "getRenderScale", "impl_getRenderScale" }) {
+            try {
+                Method method = Screen.class.getDeclaredMethod(name);
+                method.setAccessible(true);
+                return method;
+            } catch (NoSuchMethodException | RuntimeException e) {
+                // Try the next name
+            }
+        }
+        return null;
+    }
+
+
+    private static final class ScaleListener implements InvalidationListener {
+        private final Window window;
+        private       double scale;
+
+
+        ScaleListener(final Window WINDOW) {
+            window = WINDOW;
+            scale  = of(WINDOW);
+        }
+
+
+        @Override public void invalidated(final Observable OBSERVABLE) {
+            // Reading the scale also validates the observed property again
+            double newScale = of(window);
+            if (Double.compare(newScale, scale) == 0) { return; }
+            scale = newScale;
+            Scene scene = window.getScene();
+            if (null == scene || null == scene.getRoot()) { return; }
+            // The selectors compare the scale on their next layout pass, which has to be requested as nothing else changed
+            for (Node node : scene.getRoot().lookupAll(".anchor-selector")) {
+                if (node instanceof Parent) { ((Parent) node).requestLayout(); }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.Arrays;
+
+
+/**
+ * Drives the selection transitions of all AnchorSelectorSkins with one shared
+ * AnimationTimer. Only selectors with a transition in flight are kept in
+ * a compact array, the timer is stopped when there are none left, so idle
+ * selectors cost nothing per frame. Used on the FX application thread only.
+ */
+final class SelectionAnimator {
+    static final         long                 DURATION_NANOS = 150_000_000L;
+    private static final long                 FRAME_NANOS    = 16_666_667L;
+    private static       AnchorSelectorSkin[] selectors      = new AnchorSelectorSkin[16];
+    private static       int                  count;
+    private static       long                 lastFrame      = -1;
+    private static       AnimationTimer       timer;
+
+
+    private SelectionAnimator() {}
+
+
+    /**
+     * Adds the skin to the running transitions, the caller makes sure
+     * that a skin is only added once.
+     */
+    static void start(final AnchorSelectorSkin SKIN) {
+        if (count == selectors.length) { selectors = Arrays.copyOf(selectors, count * 2); }
+        selectors[count++] = SKIN;
+        if (1 == count) {
+            if (null == timer) {
+                timer = new AnimationTimer() {
+                    @Override public void handle(final long NOW) { step(NOW); }
+                };
+            }
+            timer.start();
+        }
+    }
+
+    static void stop(final AnchorSelectorSkin SKIN) {
+        for (int i = 0 ; i < count ; i++) {
+            if (selectors[i] == SKIN) {
+                remove(i);
+                break;
+            }
+        }
+        if (0 == count) { stopTimer(); }
+    }
+
+    static int getActiveCount() { return count; }
+
+    private static void step(final long NOW) {
+        long   elapsed = lastFrame < 0 ? FRAME_NANOS : NOW - lastFrame;
+        double step    = Math.min(1.0, (double) elapsed / DURATION_NANOS);
+        lastFrame = NOW;
+        int i = 0;
+        while (i < count) {
+            if (selectors[i].stepAnimation(step)) {
+                i++;
+            } else {
+                remove(i);
+            }
+        }
+        if (0 == count) { stopTimer(); }
+    }
+
+    private static void remove(final int INDEX) {
+        selectors[INDEX] = selectors[--count];
+        selectors[count] = null;
+    }
+
+    private static void stopTimer() {
+        if (null != timer) { timer.stop(); }
+        lastFrame = -1;
+    }
+}
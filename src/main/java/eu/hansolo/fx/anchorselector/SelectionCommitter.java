@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.CommitPolicy;
+import javafx.animation.PauseTransition;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Pos;
+import javafx.util.Duration;
+
+import java.util.function.Supplier;
+
+
+/**
+ * Passes the selection of an AnchorSelector on to the committed anchor
+ * according to the commit policy. Used on the FX application thread only.
+ */
+final class SelectionCommitter {
+    private final Supplier<Pos>              selection;
+    private final ReadOnlyObjectWrapper<Pos> committedAnchor;
+    private final Runnable                   pulseTask;
+    private       CommitPolicy               policy;
+    private       Duration                   delay;
+    private       PauseTransition            timer;
+    private       boolean                    pulsePending;
+    private       boolean                    trailingCommit;
+    private       boolean                    disposed;
+
+
+    SelectionCommitter(final Object BEAN, final Supplier<Pos> SELECTION, final CommitPolicy POLICY, final Duration DELAY) {
+        selection       = SELECTION;
+        committedAnchor = new ReadOnlyObjectWrapper<>(BEAN, "committedAnchor", SELECTION.get());
+        pulseTask       = () -> {
+            pulsePending = false;
+            commit();
+        };
+        policy          = POLICY;
+        delay           = DELAY;
+    }
+
+
+    ReadOnlyObjectProperty<Pos> committedAnchorProperty() { return committedAnchor.getReadOnlyProperty(); }
+
+    void setPolicy(final CommitPolicy POLICY) {
+        if (POLICY == policy) { return; }
+        policy = POLICY;
+        flush();
+    }
+
+    void setDelay(final Duration DELAY) {
+        delay = DELAY;
+        if (null != timer) { timer.setDuration(DELAY); }
+    }
+
+    void selectionChanged() {
+        switch (policy) {
+            case IMMEDIATE:
+                commit();
+                break;
+            case PULSE:
+                if (!pulsePending) {
+                    pulsePending = true;
+                    PulseScheduler.schedule(pulseTask);
+                }
+                break;
+            case DEBOUNCE:
+                // Every change restarts the delay, the value is committed once the selection settled
+                timer().playFromStart();
+                break;
+            case THROTTLE:
+                // The first change is committed at once, further changes within the delay once at its end
+                if (isTimerRunning()) {
+                    trailingCommit = true;
+                } else {
+                    commit();
+                    timer().playFromStart();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Commits the current selection right away, e.g. when the policy changes.
+     */
+    void flush() {
+        if (null != timer) { timer.stop(); }
+        trailingCommit = false;
+        commit();
+    }
+
+    /**
+     * Stops the timer, nothing is committed afterwards, also not by a
+     * task that is already scheduled for the next pulse.
+     */
+    void dispose() {
+        disposed = true;
+        if (null != timer) { timer.stop(); }
+        trailingCommit = false;
+    }
+
+    /**
+     * Lets a running delay end right away as if it elapsed, used by tests.
+     */
+    void elapseDelay() {
+        if (!isTimerRunning()) { return; }
+        timer.stop();
+        onTimerFinished();
+    }
+
+    private void commit() {
+        if (disposed) { return; }
+        committedAnchor.set(selection.get());
+    }
+
+    private PauseTransition timer() {
+        if (null == timer) {
+            timer = new PauseTransition(delay);
+            timer.setOnFinished(e -> onTimerFinished());
+        }
+        return timer;
+    }
+
+    private boolean isTimerRunning() { return null != timer && PauseTransition.Status.RUNNING == timer.getStatus(); }
+
+    private void onTimerFinished() {
+        if (CommitPolicy.DEBOUNCE == policy) {
+            commit();
+        } else if (CommitPolicy.THROTTLE == policy && trailingCommit) {
+            trailingCommit = false;
+            commit();
+            // The trailing commit opens the next throttle window
+            timer.playFromStart();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.beans.value.WritableValue;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.StackPane;
+import javafx.scene.shape.Rectangle;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class AlignmentApplierTest {
+    private static final int              TARGETS = 5000;
+    private              AnchorSelector   selector;
+    private              AlignmentApplier applier;
+    private              Label            label;
+    private              TextField        field;
+
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Before public void setup() {
+        FxThread.runAndWait(() -> {
+            selector = new AnchorSelector();
+            applier  = new AlignmentApplier(selector);
+            label    = new Label();
+            field    = new TextField();
+        });
+    }
+
+    @Test public void selectionIsAppliedToAllTargetsOncePerPulse() {
+        List<StackPane> panes    = new ArrayList<>();
+        CountingTarget  counting = new CountingTarget();
+        FxThread.runAndWait(() -> {
+            for (int i = 0 ; i < TARGETS ; i++) { panes.add(new StackPane()); }
+            applier.addAll(panes);
+            applier.add(label);
+            applier.add(field);
+            applier.add(counting);
+        });
+        FxThread.waitForPulses(2);
+        assertEquals(Pos.TOP_LEFT, panes.get(0).getAlignment());
+        assertEquals(1, counting.sets);
+
+        FxThread.runAndWait(() -> {
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            selector.getModel().setSelectedAnchor(Pos.BOTTOM_RIGHT);
+            // Applied on the next pulse
+            assertEquals(Pos.TOP_LEFT, label.getAlignment());
+        });
+        FxThread.waitForPulses(2);
+
+        for (StackPane pane : panes) { assertEquals(Pos.BOTTOM_RIGHT, pane.getAlignment()); }
+        assertEquals(Pos.BOTTOM_RIGHT, label.getAlignment());
+        assertEquals(Pos.BOTTOM_RIGHT, field.getAlignment());
+        assertEquals(2, counting.sets);
+    }
+
+    @Test public void targetsWithTheSelectedAlignmentAreSkipped() {
+        CountingTarget counting = new CountingTarget();
+        counting.value = Pos.CENTER;
+        FxThread.runAndWait(() -> {
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            applier.add(counting);
+            applier.apply();
+            assertEquals(0, counting.sets);
+
+            applier.remove(counting);
+            selector.getModel().setSelectedAnchor(Pos.TOP_CENTER);
+            applier.apply();
+            assertEquals(0, counting.sets);
+            assertEquals(0, applier.getTargetCount());
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class) public void nodesWithoutAlignmentAreRejected() {
+        applier.add(new Rectangle());
+    }
+
+
+    private static class CountingTarget implements WritableValue<Pos> {
+        private Pos value;
+        private int sets;
+
+        @Override public Pos getValue() { return value; }
+        @Override public void setValue(final Pos VALUE) {
+            value = VALUE;
+            sets++;
+        }
+    }
+}
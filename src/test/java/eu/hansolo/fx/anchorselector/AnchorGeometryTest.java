@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class AnchorGeometryTest {
+
+    @Before public void setup() { AnchorGeometry.clear(); }
+
+    @Test public void tablesAreSharedPerSizeAndScale() {
+        double[] table = AnchorGeometry.of(64, 1);
+        assertSame(table, AnchorGeometry.of(64, 1));
+        assertEquals(1, AnchorGeometry.getTableCount());
+
+        AnchorGeometry.of(64, 2);
+        AnchorGeometry.of(48, 1);
+        assertEquals(3, AnchorGeometry.getTableCount());
+    }
+
+    @Test public void valuesAreSnappedToDevicePixels() {
+        double   scale = 1.5;
+        double[] table = AnchorGeometry.of(37, scale);
+        for (double value : table) { assertEquals(Math.rint(value * scale), value * scale, 1e-9); }
+    }
+
+    @Test public void numberOfTablesIsBounded() {
+        for (int size = 1 ; size <= AnchorGeometry.MAX_TABLES * 2 ; size++) { AnchorGeometry.of(size, 1); }
+        assertEquals(AnchorGeometry.MAX_TABLES, AnchorGeometry.getTableCount());
+    }
+
+    @Test public void oldestTablesAreDroppedFirst() {
+        double[][] tables = new double[AnchorGeometry.MAX_TABLES * 2 + 1][];
+        for (int size = 1 ; size < tables.length ; size++) { tables[size] = AnchorGeometry.of(size, 1); }
+
+        for (int size = AnchorGeometry.MAX_TABLES + 1 ; size < tables.length ; size++) { assertSame(tables[size], AnchorGeometry.of(size, 1)); }
+        assertEquals(AnchorGeometry.MAX_TABLES, AnchorGeometry.getTableCount());
+    }
+
+    @Test public void lookingUpATableDoesNotAllocate() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+        for (int size = 1 ; size <= AnchorGeometry.MAX_TABLES ; size++) { AnchorGeometry.of(size, 1.5); }
+        long threadId = Thread.currentThread().getId();
+        long before   = allocations.getThreadAllocatedBytes(threadId);
+        for (int round = 0 ; round < 1_000 ; round++) {
+            for (int size = 1 ; size <= AnchorGeometry.MAX_TABLES ; size++) { AnchorGeometry.of(size, 1.5); }
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("Allocated " + allocated + " bytes", allocated < 1_000);
+    }
+
+    @Test public void scaleChangeOfTheWindowLeadsToANewLayout() throws Exception {
+        Method updateOutputScales;
+        try {
+            // Only JavaFX 9 and newer have an output scale per window
+            updateOutputScales = Window.class.getDeclaredMethod("updateOutputScales", double.class, double.class);
+            updateOutputScales.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            updateOutputScales = null;
+        }
+        Assume.assumeNotNull(updateOutputScales);
+
+        Method update = updateOutputScales;
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            StackPane      pane     = new StackPane(selector);
+            Stage          stage    = new Stage();
+            stage.setScene(new Scene(pane, 64, 64));
+            stage.show();
+            try {
+                update.invoke(stage, 1.0, 1.0);
+                pane.layout();
+                assertEquals(1.0, ((AbstractAnchorSelectorSkin) selector.getSkin()).renderScale, 0);
+                assertFalse(selector.isNeedsLayout());
+
+                update.invoke(stage, 2.0, 2.0);
+                assertTrue(selector.isNeedsLayout());
+                pane.layout();
+                assertEquals(2.0, ((AbstractAnchorSelectorSkin) selector.getSkin()).renderScale, 0);
+            } catch (ReflectiveOperationException e) {
+                throw new AssertionError(e);
+            } finally {
+                stage.hide();
+            }
+        });
+    }
+}
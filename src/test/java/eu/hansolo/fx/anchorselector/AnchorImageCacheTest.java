@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.RenderMode;
+import javafx.geometry.Pos;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Color;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+
+public class AnchorImageCacheTest {
+
+    @Before public void resetCache() {
+        FxThread.runAndWait(() -> {
+            AnchorImageCache.clear();
+            AnchorImageCache.resetStatistics();
+            AnchorImageCache.setMaxSize(AnchorImageCache.DEFAULT_MAX_SIZE);
+        });
+    }
+
+    @After public void restoreMaxSize() {
+        FxThread.runAndWait(() -> AnchorImageCache.setMaxSize(AnchorImageCache.DEFAULT_MAX_SIZE));
+    }
+
+    @Test public void identicalSelectorsShareOneImage() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector1 = layout(new AnchorSelector(RenderMode.IMAGE));
+            AnchorSelector selector2 = layout(new AnchorSelector(RenderMode.IMAGE));
+
+            assertSame(image(selector1), image(selector2));
+            assertEquals(1, AnchorImageCache.getMissCount());
+            assertEquals(1, AnchorImageCache.getHitCount());
+            assertEquals(1, AnchorImageCache.getSize());
+        });
+    }
+
+    @Test public void selectionAndColorsAreDistinctStates() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = layout(new AnchorSelector(RenderMode.IMAGE));
+            Image          topLeft  = image(selector);
+
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            selector.layout();
+            assertNotSame(topLeft, image(selector));
+
+            selector.getModel().setSelectedAnchor(Pos.TOP_LEFT);
+            selector.layout();
+            assertSame(topLeft, image(selector));
+
+            selector.setAnchorColor(Color.PURPLE);
+            assertNotSame(topLeft, image(selector));
+            assertEquals(3, AnchorImageCache.getMissCount());
+            assertEquals(1, AnchorImageCache.getHitCount());
+        });
+    }
+
+    @Test public void leastRecentlyUsedImagesAreEvicted() {
+        FxThread.runAndWait(() -> {
+            AnchorImageCache.setMaxSize(2);
+            AnchorSelector selector = layout(new AnchorSelector(RenderMode.IMAGE));
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            selector.layout();
+            selector.getModel().setSelectedAnchor(Pos.BOTTOM_RIGHT);
+            selector.layout();
+
+            assertEquals(2, AnchorImageCache.getSize());
+            assertEquals(1, AnchorImageCache.getEvictionCount());
+
+            AnchorImageCache.setMaxSize(1);
+            assertEquals(1, AnchorImageCache.getSize());
+            assertEquals(2, AnchorImageCache.getEvictionCount());
+        });
+    }
+
+
+    private AnchorSelector layout(final AnchorSelector SELECTOR) {
+        SELECTOR.resize(64, 64);
+        SELECTOR.layout();
+        return SELECTOR;
+    }
+
+    private Image image(final AnchorSelector SELECTOR) { return ((ImageView) SELECTOR.getChildrenUnmodifiable().get(0)).getImage(); }
+}
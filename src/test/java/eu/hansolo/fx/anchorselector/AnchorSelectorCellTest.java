@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class AnchorSelectorCellTest {
+    private static final int ROWS = 50_000;
+
+
+    @Test public void oneSelectorIsReusedForAllRows() {
+        FxThread.runAndWait(() -> {
+            PackedAnchorColumn column = new PackedAnchorColumn(ROWS);
+            for (int row = 0 ; row < ROWS ; row++) { column.set(row, Anchor.POSITIONS[row % 9]); }
+            TableView<Integer>               table    = createTable(ROWS);
+            AnchorSelectorTableCell<Integer> cell     = createCell(table, column);
+            AnchorSelector                   selector = cell.getAnchorSelector();
+
+            cell.updateIndex(0);
+            selector.resize(32, 32);
+            selector.layout();
+            List<Node> children = new ArrayList<>(selector.getChildrenUnmodifiable());
+
+            for (int row = 0 ; row < ROWS ; row += 7) {
+                cell.updateIndex(row);
+                selector.layout();
+                assertSame(selector, cell.getGraphic());
+                assertEquals(column.get(row), selector.getSelectedAnchor());
+            }
+            assertEquals(children, selector.getChildrenUnmodifiable());
+
+            cell.updateIndex(ROWS);
+            assertNull(cell.getGraphic());
+        });
+    }
+
+    @Test public void selectionsAreWrittenToThePackedColumn() {
+        FxThread.runAndWait(() -> {
+            PackedAnchorColumn               column = new PackedAnchorColumn(ROWS);
+            TableView<Integer>               table  = createTable(ROWS);
+            AnchorSelectorTableCell<Integer> cell   = createCell(table, column);
+
+            cell.updateIndex(3);
+            assertSame(Pos.TOP_LEFT, cell.getAnchorSelector().getSelectedAnchor());
+            // Not editable => the selector is disabled
+            assertTrue(cell.getAnchorSelector().isDisabled());
+
+            table.setEditable(true);
+            cell.updateIndex(4);
+            assertFalse(cell.getAnchorSelector().isDisabled());
+            cell.getAnchorSelector().getModel().setSelectedAnchor(Pos.BOTTOM_CENTER);
+            assertEquals(Pos.BOTTOM_CENTER, column.get(4));
+            assertEquals(Pos.TOP_LEFT, column.get(3));
+            assertEquals(Pos.TOP_LEFT, column.get(5));
+        });
+    }
+
+    @Test public void selectionsReplaceTheItemsOfAListView() {
+        FxThread.runAndWait(() -> {
+            ObservableList<Pos>         items    = FXCollections.observableArrayList(Pos.TOP_LEFT, Pos.CENTER, Pos.BOTTOM_RIGHT);
+            ListView<Pos>               listView = new ListView<>(items);
+            AnchorSelectorListCell<Pos> cell     = new AnchorSelectorListCell<>();
+            listView.setEditable(true);
+            cell.updateListView(listView);
+
+            cell.updateIndex(1);
+            assertEquals(Pos.CENTER, cell.getAnchorSelector().getSelectedAnchor());
+            cell.getAnchorSelector().getModel().setSelectedAnchor(Pos.TOP_RIGHT);
+            assertEquals(Pos.TOP_RIGHT, items.get(1));
+
+            cell.updateIndex(2);
+            assertEquals(Pos.BOTTOM_RIGHT, cell.getAnchorSelector().getSelectedAnchor());
+            assertEquals(Pos.TOP_RIGHT, items.get(1));
+        });
+    }
+
+
+    private TableView<Integer> createTable(final int ROW_COUNT) {
+        ObservableList<Integer> rows = FXCollections.observableArrayList();
+        for (int row = 0 ; row < ROW_COUNT ; row++) { rows.add(row); }
+        TableColumn<Integer, Pos> anchorColumn = new TableColumn<>("Anchor");
+        anchorColumn.setCellValueFactory(features -> new SimpleObjectProperty<>());
+        TableView<Integer> table = new TableView<>(rows);
+        table.getColumns().add(anchorColumn);
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AnchorSelectorTableCell<Integer> createCell(final TableView<Integer> TABLE, final PackedAnchorColumn COLUMN) {
+        AnchorSelectorTableCell<Integer> cell = new AnchorSelectorTableCell<>(COLUMN);
+        cell.updateTableView(TABLE);
+        cell.updateTableColumn((TableColumn<Integer, Pos>) TABLE.getColumns().get(0));
+        return cell;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+import javafx.scene.paint.Color;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class AnchorSelectorEventsTest {
+    private static final String SELECTION      = "eu.hansolo.fx.anchorselector.Selection";
+    private static final String RESIZE_ANCHORS = "eu.hansolo.fx.anchorselector.ResizeAnchors";
+    private static final String STYLE          = "eu.hansolo.fx.anchorselector.Style";
+
+
+    @Test public void eventsAreOnlyRecordedWhenEnabled() throws IOException {
+        List<RecordedEvent> events = record(false);
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("eu.hansolo.fx.anchorselector")));
+    }
+
+    @Test public void selectionLayoutAndStyleAreRecorded() throws IOException {
+        List<RecordedEvent> events = record(true);
+
+        List<RecordedEvent> selections = ofType(events, SELECTION);
+        assertEquals(1, selections.size());
+        assertEquals("TOP_LEFT", selections.get(0).getString("oldPosition"));
+        assertEquals("CENTER", selections.get(0).getString("newPosition"));
+        assertEquals(AnchorSelectorEvents.SOURCE_PROGRAMMATIC, selections.get(0).getString("source"));
+
+        List<RecordedEvent> resizes = ofType(events, RESIZE_ANCHORS);
+        assertEquals(1, resizes.size());
+        assertEquals(64, resizes.get(0).getDouble("size"), 0);
+
+        List<RecordedEvent> styles = ofType(events, STYLE);
+        assertEquals(1, styles.size());
+        assertTrue(styles.get(0).getBoolean("changed"));
+    }
+
+
+    private List<RecordedEvent> record(final boolean ENABLE) throws IOException {
+        Path file = Files.createTempFile("anchorselector", ".jfr");
+        try (Recording recording = new Recording()) {
+            if (ENABLE) {
+                recording.enable(SELECTION);
+                recording.enable(RESIZE_ANCHORS);
+                recording.enable(STYLE);
+            }
+            recording.start();
+            FxThread.runAndWait(() -> {
+                AnchorSelector selector = new AnchorSelector();
+                selector.resize(64, 64);
+                selector.layout();
+                selector.getModel().setSelectedAnchor(Pos.CENTER);
+                selector.setColors(Color.BLACK, Color.PURPLE, Color.YELLOW);
+            });
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private List<RecordedEvent> ofType(final List<RecordedEvent> EVENTS, final String NAME) {
+        return EVENTS.stream().filter(e -> NAME.equals(e.getEventType().getName())).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelectorMetrics.Operation;
+import eu.hansolo.fx.anchorselector.AnchorSelectorMetrics.Snapshot;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class AnchorSelectorGroupTest {
+    private static final int MEMBERS = 300;
+
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @After public void disableMetrics() {
+        AnchorSelectorMetrics.setEnabled(false);
+        AnchorSelectorMetrics.global().reset();
+    }
+
+    @Test public void oneSelectionUpdatesAllMembersWithOneNotification() {
+        AnchorSelectorGroup  group         = new AnchorSelectorGroup();
+        List<AnchorSelector> selectors     = new ArrayList<>();
+        List<Pos>            notifications = new ArrayList<>();
+        FxThread.runAndWait(() -> {
+            for (int i = 0 ; i < MEMBERS ; i++) {
+                AnchorSelector selector = new AnchorSelector();
+                selector.resize(64, 64);
+                selector.layout();
+                selectors.add(selector);
+                group.add(selector);
+            }
+        });
+        FxThread.waitForPulses(2);
+        assertEquals(Pos.TOP_LEFT, group.getSelectedAnchor());
+
+        AnchorSelectorMetrics.setEnabled(true);
+        FxThread.runAndWait(() -> {
+            group.selectedAnchorProperty().addListener((o, ov, nv) -> notifications.add(nv));
+            selectors.get(42).getModel().setSelectedAnchor(Pos.CENTER);
+            selectors.get(7).getModel().setSelectedAnchor(Pos.BOTTOM_RIGHT);
+            for (AnchorSelector selector : selectors) {
+                assertEquals(Pos.BOTTOM_RIGHT, selector.getSelectedAnchor());
+                selector.layout();
+            }
+        });
+        FxThread.waitForPulses(2);
+
+        assertEquals(1, notifications.size());
+        assertEquals(Pos.BOTTOM_RIGHT, notifications.get(0));
+        Snapshot snapshot = AnchorSelectorMetrics.global().snapshot();
+        assertEquals(2 * MEMBERS, snapshot.getCount(Operation.SELECTION));
+        assertEquals(0, snapshot.getCount(Operation.RESIZE_ANCHORS));
+    }
+
+    @Test public void disagreeingMembersAreMixed() {
+        AnchorSelectorGroup             group     = new AnchorSelectorGroup();
+        AtomicReference<AnchorSelector> reference = new AtomicReference<>();
+        FxThread.runAndWait(() -> {
+            reference.set(new AnchorSelector(new AnchorSelectorModel(Pos.CENTER)));
+            group.add(new AnchorSelector());
+            group.add(reference.get());
+        });
+        AnchorSelector other = reference.get();
+        FxThread.waitForPulses(2);
+        assertTrue(group.isMixed());
+        assertNull(group.getSelectedAnchor());
+
+        FxThread.runAndWait(() -> {
+            group.setSelectedAnchor(Pos.TOP_RIGHT);
+            // A selection of the group is reported right away
+            assertFalse(group.isMixed());
+            assertEquals(Pos.TOP_RIGHT, group.getSelectedAnchor());
+        });
+        FxThread.waitForPulses(2);
+        assertFalse(group.isMixed());
+        assertEquals(Pos.TOP_RIGHT, group.getSelectedAnchor());
+        assertEquals(Pos.TOP_RIGHT, other.getSelectedAnchor());
+
+        FxThread.runAndWait(() -> group.remove(other));
+        other.getModel().setSelectedAnchor(Pos.BOTTOM_LEFT);
+        FxThread.waitForPulses(2);
+        assertEquals(Pos.TOP_RIGHT, group.getSelectedAnchor());
+    }
+
+    @Test public void membersThatShareAModelStayConnected() {
+        AnchorSelectorGroup  group     = new AnchorSelectorGroup();
+        AnchorSelectorModel  shared    = new AnchorSelectorModel();
+        List<AnchorSelector> selectors = new ArrayList<>();
+        FxThread.runAndWait(() -> {
+            selectors.add(new AnchorSelector(shared));
+            selectors.add(new AnchorSelector(shared));
+            selectors.add(new AnchorSelector());
+            for (AnchorSelector selector : selectors) { group.add(selector); }
+
+            group.remove(selectors.get(0));
+            shared.setSelectedAnchor(Pos.CENTER);
+            assertEquals(Pos.CENTER, selectors.get(2).getSelectedAnchor());
+
+            group.remove(selectors.get(1));
+            shared.setSelectedAnchor(Pos.TOP_RIGHT);
+            assertEquals(Pos.CENTER, selectors.get(2).getSelectedAnchor());
+            assertEquals(2, shared.getListenerCount());
+        });
+    }
+
+    @Test public void changesFromOtherThreadsArePassedOnOncePerPulse() {
+        AnchorSelectorGroup  group     = new AnchorSelectorGroup();
+        List<AnchorSelector> selectors = new ArrayList<>();
+        AtomicInteger        changes   = new AtomicInteger();
+        FxThread.runAndWait(() -> {
+            for (int i = 0 ; i < 3 ; i++) {
+                selectors.add(new AnchorSelector());
+                group.add(selectors.get(i));
+            }
+            selectors.get(1).getModel().addSelectionListener((model, oldPos, newPos) -> changes.incrementAndGet());
+        });
+        AnchorSelector source  = selectors.get(0);
+        AnchorSelector target  = selectors.get(1);
+        AnchorSelector removed = selectors.get(2);
+
+        // All changes are made while the FX application thread is busy, so they end up in the same pulse
+        CountDownLatch released = blockFxThread(() -> {});
+        for (int i = 0 ; i < 100 ; i++) { source.getModel().setSelectedAnchor(Anchor.POSITIONS[i % Anchor.POSITIONS.length]); }
+        source.getModel().setSelectedAnchor(Pos.BOTTOM_RIGHT);
+        released.countDown();
+        FxThread.waitForPulses(2);
+        assertEquals(1, changes.get());
+        assertEquals(Pos.BOTTOM_RIGHT, target.getModel().getSelectedAnchor());
+
+        // A member that is removed before the next pulse does not pass on its change
+        released = blockFxThread(() -> group.remove(removed));
+        removed.getModel().setSelectedAnchor(Pos.TOP_RIGHT);
+        released.countDown();
+        FxThread.waitForPulses(2);
+        assertEquals(1, changes.get());
+        assertEquals(Pos.BOTTOM_RIGHT, target.getModel().getSelectedAnchor());
+    }
+
+
+    // Blocks the FX application thread until the returned latch is released, the task runs afterwards
+    private CountDownLatch blockFxThread(final Runnable TASK) {
+        CountDownLatch released = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            TASK.run();
+        });
+        return released;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelectorMetrics.Operation;
+import eu.hansolo.fx.anchorselector.AnchorSelectorMetrics.Snapshot;
+import javafx.geometry.Pos;
+import javafx.scene.paint.Color;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class AnchorSelectorMetricsTest {
+
+    @After public void disableMetrics() {
+        AnchorSelectorMetrics.setEnabled(false);
+        AnchorSelectorMetrics.global().reset();
+    }
+
+    @Test public void nothingIsRecordedWhileDisabled() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            selector.resize(64, 64);
+            selector.layout();
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+
+            Snapshot snapshot = selector.getMetrics().snapshot();
+            for (Operation operation : Operation.values()) { assertEquals(0, snapshot.getCount(operation)); }
+        });
+    }
+
+    @Test public void operationsAreCountedPerInstanceAndGlobally() {
+        AnchorSelectorMetrics.setEnabled(true);
+        AnchorSelectorMetrics.global().reset();
+        AnchorSelector[] selectors = new AnchorSelector[2];
+        FxThread.runAndWait(() -> {
+            for (int i = 0 ; i < selectors.length ; i++) {
+                selectors[i] = new AnchorSelector();
+                selectors[i].resize(64, 64);
+                selectors[i].layout();
+            }
+            selectors[0].getModel().setSelectedAnchor(Pos.CENTER);
+            selectors[0].getModel().setSelectedAnchor(Pos.BOTTOM_LEFT);
+            selectors[0].setColors(Color.BLACK, Color.PURPLE, Color.YELLOW);
+        });
+
+        // Snapshots are taken outside of the FX application thread
+        Snapshot snapshot = selectors[0].getMetrics().snapshot();
+        assertEquals(1, snapshot.getCount(Operation.RESIZE));
+        assertEquals(2, snapshot.getCount(Operation.SELECTION));
+        assertEquals(1, snapshot.getCount(Operation.STYLE));
+        assertEquals(0, selectors[1].getMetrics().snapshot().getCount(Operation.SELECTION));
+
+        Snapshot global = AnchorSelectorMetrics.global().snapshot();
+        assertEquals(2, global.getCount(Operation.RESIZE));
+        assertEquals(2, global.getCount(Operation.RESIZE_ANCHORS));
+        assertEquals(2, global.getCount(Operation.SELECTION));
+        assertEquals(1, global.getCount(Operation.STYLE));
+        assertTrue(global.getAverageNanos(Operation.RESIZE) > 0);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Pos;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class AnchorSelectorModelTest {
+
+    @Test public void compareAndSetOnlySucceedsForTheExpectedValue() {
+        AnchorSelectorModel model = new AnchorSelectorModel();
+
+        assertFalse(model.compareAndSetSelectedAnchor(Pos.CENTER, Pos.BOTTOM_LEFT));
+        assertTrue(model.compareAndSetSelectedAnchor(Pos.TOP_LEFT, Pos.BOTTOM_LEFT));
+        assertEquals(Pos.BOTTOM_LEFT, model.getSelectedAnchor());
+    }
+
+    @Test public void concurrentUpdatesAreNotLost() throws InterruptedException {
+        AnchorSelectorModel model   = new AnchorSelectorModel(Pos.TOP_LEFT);
+        AtomicInteger       changes = new AtomicInteger();
+        model.addSelectionListener((m, oldPos, newPos) -> changes.incrementAndGet());
+
+        // Every thread moves the selection one step further with compare-and-set
+        int            threads = 4;
+        int            steps   = 10_000;
+        CountDownLatch done    = new CountDownLatch(threads);
+        for (int t = 0 ; t < threads ; t++) {
+            new Thread(() -> {
+                for (int i = 0 ; i < steps ; i++) {
+                    Pos current;
+                    do {
+                        current = model.getSelectedAnchor();
+                    } while (!model.compareAndSetSelectedAnchor(current, next(current)));
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        assertEquals(threads * steps, changes.get());
+        assertEquals(Anchor.POSITIONS[(threads * steps) % 9], model.getSelectedAnchor());
+    }
+
+    @Test public void crossThreadChangesAreCoalescedPerPulse() throws InterruptedException {
+        AnchorSelectorModel            model    = new AnchorSelectorModel();
+        AtomicReference<AnchorSelector> selector = new AtomicReference<>();
+        AtomicInteger                  updates  = new AtomicInteger();
+        AtomicInteger                  pulses   = new AtomicInteger();
+        AtomicReference<AnimationTimer> timer   = new AtomicReference<>();
+        FxThread.runAndWait(() -> {
+            selector.set(new AnchorSelector(model));
+            selector.get().selectedAnchorProperty().addListener(o -> updates.incrementAndGet());
+            timer.set(new AnimationTimer() {
+                @Override public void handle(final long NOW) { pulses.incrementAndGet(); }
+            });
+            timer.get().start();
+        });
+
+        Thread worker = new Thread(() -> {
+            for (int i = 0 ; i < 100_000 ; i++) { model.setSelectedAnchor(Anchor.POSITIONS[i % 9]); }
+            model.setSelectedAnchor(Pos.BOTTOM_CENTER);
+        });
+        worker.start();
+        worker.join();
+        FxThread.waitForPulses(3);
+        FxThread.runAndWait(() -> timer.get().stop());
+
+        assertEquals(Pos.BOTTOM_CENTER, selector.get().getSelectedAnchor());
+        assertTrue(updates.get() <= pulses.get());
+    }
+
+
+    private static Pos next(final Pos POS) { return Anchor.POSITIONS[(Anchor.indexOf(POS) + 1) % 9]; }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+import javafx.scene.paint.Color;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class AnchorStateCodecTest {
+    private static final int MODELS = 100_000;
+
+
+    @Test public void statesOfSelectorsRoundTrip() {
+        FxThread.runAndWait(() -> {
+            List<AnchorSelector> selectors = new ArrayList<>();
+            for (int i = 0 ; i < 3 ; i++) { selectors.add(new AnchorSelector()); }
+            selectors.get(0).getModel().setSelectedAnchor(Pos.BOTTOM_RIGHT);
+            selectors.get(1).setColors(Color.rgb(180, 180, 180, 0.4), Color.PURPLE, Color.YELLOW);
+            selectors.get(2).getModel().setSelectedAnchor(Pos.CENTER);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(selectors.size() * AnchorStateCodec.STATE_BYTES);
+            AnchorStateCodec.exportStates(selectors, buffer);
+            assertEquals(0, buffer.remaining());
+            buffer.flip();
+
+            List<AnchorSelector> restored = Arrays.asList(new AnchorSelector(), new AnchorSelector(), new AnchorSelector());
+            AnchorStateCodec.importStates(buffer, restored);
+            for (int i = 0 ; i < selectors.size() ; i++) {
+                assertEquals(selectors.get(i).getSelectedAnchor(), restored.get(i).getSelectedAnchor());
+                assertEquals(selectors.get(i).getBackgroundColor(), restored.get(i).getBackgroundColor());
+                assertEquals(selectors.get(i).getAnchorColor(), restored.get(i).getAnchorColor());
+                assertEquals(selectors.get(i).getSelectedAnchorColor(), restored.get(i).getSelectedAnchorColor());
+            }
+        });
+    }
+
+    @Test public void selectionsAreStoredInOneBytePerSelector() {
+        PackedAnchorColumn column = new PackedAnchorColumn(Anchor.POSITIONS.length);
+        for (int i = 0 ; i < Anchor.POSITIONS.length ; i++) { column.set(i, Anchor.POSITIONS[i]); }
+        ByteBuffer buffer = ByteBuffer.allocate(column.size());
+        AnchorStateCodec.exportColumn(column, buffer);
+        assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8]", Arrays.toString(buffer.array()));
+
+        buffer.flip();
+        PackedAnchorColumn restored = new PackedAnchorColumn(column.size());
+        AnchorStateCodec.importColumn(buffer, restored);
+        for (int i = 0 ; i < column.size() ; i++) { assertEquals(column.get(i), restored.get(i)); }
+    }
+
+    @Test public void invalidSelectionsAreRejected() {
+        List<AnchorSelectorModel> models = Arrays.asList(new AnchorSelectorModel(), new AnchorSelectorModel());
+        try {
+            AnchorStateCodec.importModels(ByteBuffer.wrap(new byte[] { 4, 9 }), models);
+            throw new AssertionError("Invalid selection was imported");
+        } catch (IllegalArgumentException e) {
+            assertEquals(Pos.CENTER, models.get(0).getSelectedAnchor());
+            assertEquals(Pos.TOP_LEFT, models.get(1).getSelectedAnchor());
+        }
+    }
+
+    @Test(expected = BufferUnderflowException.class) public void tooSmallBuffersAreRejected() {
+        AnchorStateCodec.importModels(ByteBuffer.allocate(1), Arrays.asList(new AnchorSelectorModel(), new AnchorSelectorModel()));
+    }
+
+    @Test public void restoringModelsDoesNotAllocatePerModel() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+        List<AnchorSelectorModel> models = new ArrayList<>(MODELS);
+        for (int i = 0 ; i < MODELS ; i++) {
+            AnchorSelectorModel model = new AnchorSelectorModel();
+            model.addSelectionListener((m, oldPos, newPos) -> {});
+            models.add(model);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MODELS * AnchorStateCodec.SELECTION_BYTES);
+        for (int i = 0 ; i < MODELS ; i++) { buffer.put((byte) (i % Anchor.POSITIONS.length)); }
+
+        // Warm up, then restore other selections so that every model changes
+        for (int round = 0 ; round < 3 ; round++) {
+            buffer.flip();
+            AnchorStateCodec.importModels(buffer, models);
+            buffer.flip();
+            AnchorStateCodec.exportModels(models, buffer);
+            for (int i = 0 ; i < MODELS ; i++) { buffer.put(i, (byte) ((buffer.get(i) + 1) % Anchor.POSITIONS.length)); }
+        }
+        buffer.flip();
+        long threadId = Thread.currentThread().getId();
+        long before   = allocations.getThreadAllocatedBytes(threadId);
+        AnchorStateCodec.importModels(buffer, models);
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(Anchor.POSITIONS[(MODELS - 1 + 3) % Anchor.POSITIONS.length], models.get(MODELS - 1).getSelectedAnchor());
+        assertTrue("Allocated " + allocated + " bytes for " + MODELS + " models", allocated < MODELS);
+    }
+}
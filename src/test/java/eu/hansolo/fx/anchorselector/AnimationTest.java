@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class AnimationTest {
+    private static final int TOP_LEFT = Anchor.indexOf(Pos.TOP_LEFT);
+    private static final int CENTER   = Anchor.indexOf(Pos.CENTER);
+
+
+    @Before public void setup() { FxThread.start(); }
+
+    @Test public void animationCanBeEnabledByCss() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            assertFalse(selector.isAnimated());
+            new Scene(new StackPane(selector));
+            selector.setStyle("-animated: true;");
+            selector.applyCss();
+            assertTrue(selector.isAnimated());
+        });
+    }
+
+    @Test public void selectionIsAnimatedAndIdleSelectorsAreNotStepped() throws InterruptedException {
+        AnchorSelector selector = new AnchorSelector();
+        double[]       sizes    = new double[2];
+        FxThread.runAndWait(() -> {
+            selector.resize(64, 64);
+            selector.layout();
+            sizes[0] = anchors(selector).get(CENTER).getWidth();
+            sizes[1] = anchors(selector).get(TOP_LEFT).getWidth();
+            selector.setAnimated(true);
+            assertEquals(0, SelectionAnimator.getActiveCount());
+
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            selector.layout();
+            assertEquals(1, SelectionAnimator.getActiveCount());
+            assertEquals(sizes[0], anchors(selector).get(CENTER).getWidth(), 0.001);
+            assertEquals(sizes[1], anchors(selector).get(TOP_LEFT).getWidth(), 0.001);
+        });
+
+        Thread.sleep(500);
+        FxThread.runAndWait(() -> {
+            assertEquals(0, SelectionAnimator.getActiveCount());
+            assertEquals(sizes[1], anchors(selector).get(CENTER).getWidth(), 0.001);
+            assertEquals(sizes[0], anchors(selector).get(TOP_LEFT).getWidth(), 0.001);
+        });
+    }
+
+    @Test public void styledColorsAreInterpolatedAndHandedBackToTheStylesheet() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            new Scene(new StackPane(selector));
+            selector.setAnimated(true);
+            selector.applyCss();
+            selector.resize(64, 64);
+            selector.layout();
+            AnchorSelectorSkin skin   = (AnchorSelectorSkin) selector.getSkin();
+            Anchor             center = anchors(selector).get(CENTER);
+            Paint              from   = center.getFill();
+
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            selector.applyCss();
+            assertEquals(from, center.getFill());
+
+            skin.stepAnimation(0.5);
+            assertNotEquals(from, center.getFill());
+            assertNotEquals(selector.getSelectedAnchorColor(), center.getFill());
+
+            while (skin.stepAnimation(0.5)) {}
+            assertEquals(selector.getSelectedAnchorColor(), center.getFill());
+            assertFalse(center.fillProperty().isBound());
+
+            selector.setSelectedAnchorColor(Color.RED);
+            selector.applyCss();
+            assertEquals(Color.RED, center.getFill());
+        });
+        // Lets the animation timer drop the settled selector
+        FxThread.waitForPulses(2);
+    }
+
+
+    private List<Anchor> anchors(final AnchorSelector SELECTOR) {
+        List<Anchor> anchors = new ArrayList<>();
+        for (Node node : SELECTOR.lookupAll(".anchor")) { anchors.add((Anchor) node); }
+        return anchors;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.ColorMode;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Shape;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class ColorUpdateTest {
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Test public void setColorsUpdatesTheInlineStyleOnce() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector     = new AnchorSelector();
+            AtomicInteger  styleChanges = new AtomicInteger();
+            selector.styleProperty().addListener(o -> styleChanges.incrementAndGet());
+
+            selector.setColors(Color.rgb(180, 180, 180, 0.4), Color.PURPLE, Color.YELLOW);
+            assertEquals(1, styleChanges.get());
+            assertEquals("-background-color: #b4b4b466;-anchor-color: #800080ff;-selected-anchor-color: #ffff00ff;", selector.getStyle());
+
+            selector.setColors(Color.rgb(180, 180, 180, 0.4), Color.PURPLE, Color.YELLOW);
+            selector.setAnchorColor(Color.PURPLE);
+            assertEquals(1, styleChanges.get());
+        });
+    }
+
+    @Test public void directColorModeSetsTheFills() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            selector.setColorMode(ColorMode.DIRECT);
+            // The shapes are created by the first layout pass
+            selector.resize(64, 64);
+            selector.layout();
+            selector.setColors(Color.BLACK, Color.PURPLE, Color.YELLOW);
+
+            assertEquals("", null == selector.getStyle() ? "" : selector.getStyle());
+            assertEquals(Color.BLACK, shape(selector, ".background").getFill());
+            assertEquals(Color.YELLOW, anchor(selector, Pos.TOP_LEFT).getFill());
+            assertEquals(Color.PURPLE, anchor(selector, Pos.CENTER).getFill());
+
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            assertEquals(Color.PURPLE, anchor(selector, Pos.TOP_LEFT).getFill());
+            assertEquals(Color.YELLOW, anchor(selector, Pos.CENTER).getFill());
+        });
+    }
+
+    @Test public void directColorModeSetBeforeTheFirstLayoutUsesCssColors() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            selector.setStyle("-background-color: black; -anchor-color: red;");
+            selector.setColorMode(ColorMode.DIRECT);
+            StackPane pane = new StackPane(selector);
+            new Scene(pane, 64, 64);
+            pane.applyCss();
+            pane.layout();
+
+            assertEquals(Color.BLACK, shape(selector, ".background").getFill());
+            assertEquals(Color.RED, anchor(selector, Pos.CENTER).getFill());
+            assertEquals(Color.WHITE, anchor(selector, Pos.TOP_LEFT).getFill());
+        });
+    }
+
+    @Test public void directColorModeOnAStyledSelectorUsesCssColorsWithoutChangingTheStyleClasses() {
+        AtomicReference<AnchorSelector> reference         = new AtomicReference<>();
+        AtomicInteger                   styleClassChanges = new AtomicInteger();
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            selector.setStyle("-anchor-color: red;");
+            StackPane pane = new StackPane(selector);
+            new Scene(pane, 64, 64);
+            pane.applyCss();
+            pane.layout();
+            selector.getStyleClass().addListener((ListChangeListener<String>) c -> styleClassChanges.incrementAndGet());
+            selector.setColorMode(ColorMode.DIRECT);
+            reference.set(selector);
+        });
+        FxThread.waitForPulses(2);
+
+        FxThread.runAndWait(() -> {
+            assertEquals(Color.RED, anchor(reference.get(), Pos.CENTER).getFill());
+            assertEquals(0, styleClassChanges.get());
+        });
+    }
+
+
+    private Shape shape(final AnchorSelector SELECTOR, final String SELECTOR_STRING) { return (Shape) SELECTOR.lookup(SELECTOR_STRING); }
+
+    private Anchor anchor(final AnchorSelector SELECTOR, final Pos POS) {
+        for (Node node : SELECTOR.lookupAll(".anchor")) {
+            if (POS == ((Anchor) node).getPosition()) { return (Anchor) node; }
+        }
+        throw new IllegalArgumentException("No anchor for " + POS);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.CommitPolicy;
+import javafx.geometry.Pos;
+import javafx.util.Duration;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class CommittedAnchorTest {
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Test public void pulsePolicyCommitsTheLastSelectionOfAPulse() {
+        AnchorSelector selector  = createSelector();
+        List<Pos>      committed = listen(selector, CommitPolicy.PULSE, Duration.ZERO);
+
+        FxThread.runAndWait(() -> {
+            for (Pos pos : new Pos[] { Pos.TOP_CENTER, Pos.CENTER, Pos.BOTTOM_RIGHT }) { selector.getModel().setSelectedAnchor(pos); }
+            assertEquals(Pos.BOTTOM_RIGHT, selector.getSelectedAnchor());
+            assertEquals(Pos.TOP_LEFT, selector.getCommittedAnchor());
+        });
+        FxThread.waitForPulses(2);
+
+        assertEquals(1, committed.size());
+        assertEquals(Pos.BOTTOM_RIGHT, committed.get(0));
+    }
+
+    @Test public void debouncePolicyCommitsOnceTheSelectionSettled() {
+        AnchorSelector selector  = createSelector();
+        List<Pos>      committed = listen(selector, CommitPolicy.DEBOUNCE, Duration.seconds(10));
+
+        for (Pos pos : new Pos[] { Pos.TOP_CENTER, Pos.CENTER, Pos.BOTTOM_RIGHT }) {
+            FxThread.runAndWait(() -> selector.getModel().setSelectedAnchor(pos));
+        }
+        assertTrue(committed.isEmpty());
+
+        FxThread.runAndWait(selector::elapseCommitDelay);
+        assertEquals(1, committed.size());
+        assertEquals(Pos.BOTTOM_RIGHT, committed.get(0));
+    }
+
+    @Test public void throttlePolicyCommitsTheFirstAndTheLastSelectionOfAWindow() {
+        AnchorSelector selector  = createSelector();
+        List<Pos>      committed = listen(selector, CommitPolicy.THROTTLE, Duration.seconds(10));
+
+        for (Pos pos : new Pos[] { Pos.TOP_CENTER, Pos.CENTER, Pos.BOTTOM_RIGHT }) {
+            FxThread.runAndWait(() -> selector.getModel().setSelectedAnchor(pos));
+        }
+        assertEquals(1, committed.size());
+        assertEquals(Pos.TOP_CENTER, committed.get(0));
+
+        FxThread.runAndWait(selector::elapseCommitDelay);
+        assertEquals(2, committed.size());
+        assertEquals(Pos.BOTTOM_RIGHT, committed.get(1));
+
+        FxThread.runAndWait(selector::elapseCommitDelay);
+        assertEquals(2, committed.size());
+    }
+
+    @Test public void nothingIsCommittedAfterDispose() {
+        AnchorSelector selector  = createSelector();
+        List<Pos>      committed = listen(selector, CommitPolicy.PULSE, Duration.ZERO);
+
+        FxThread.runAndWait(() -> {
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            selector.dispose();
+        });
+        FxThread.waitForPulses(2);
+
+        assertTrue(committed.isEmpty());
+    }
+
+    @Test public void changingThePolicyCommitsTheSelection() {
+        AnchorSelector selector  = createSelector();
+        List<Pos>      committed = listen(selector, CommitPolicy.DEBOUNCE, Duration.seconds(10));
+
+        FxThread.runAndWait(() -> {
+            selector.getModel().setSelectedAnchor(Pos.CENTER);
+            selector.setCommitPolicy(CommitPolicy.IMMEDIATE);
+            assertEquals(Pos.CENTER, selector.getCommittedAnchor());
+            selector.getModel().setSelectedAnchor(Pos.TOP_RIGHT);
+        });
+
+        assertEquals(2, committed.size());
+        assertEquals(Pos.TOP_RIGHT, committed.get(1));
+    }
+
+
+    private AnchorSelector createSelector() {
+        AtomicReference<AnchorSelector> selector = new AtomicReference<>();
+        FxThread.runAndWait(() -> selector.set(new AnchorSelector()));
+        return selector.get();
+    }
+
+    private List<Pos> listen(final AnchorSelector SELECTOR, final CommitPolicy POLICY, final Duration DELAY) {
+        List<Pos> committed = new CopyOnWriteArrayList<>();
+        FxThread.runAndWait(() -> {
+            SELECTOR.setCommitPolicy(POLICY);
+            SELECTOR.setCommitDelay(DELAY);
+            SELECTOR.committedAnchorProperty().addListener((o, ov, nv) -> committed.add(nv));
+        });
+        return committed;
+    }
+}
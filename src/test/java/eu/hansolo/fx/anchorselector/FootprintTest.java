@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.RenderMode;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Control;
+import javafx.scene.layout.Pane;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Measures the heap that is retained per selector with JOL. The object
+ * graph of 2 x INSTANCES selectors minus the one of INSTANCES selectors is
+ * the size of INSTANCES selectors without what all of them share, e.g. the
+ * scene, the styles and the caches. The budgets are in bytes.
+ */
+public class FootprintTest {
+    private static final int  INSTANCES               = 100;
+    private static final long UNSHOWN_OVERHEAD_BUDGET = 1024;
+    private static final long IMAGE_BUDGET            = 8 * 1024;
+    private static final long NODES_BUDGET            = 32 * 1024;
+
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Test public void unshownSelectorIsNotMuchBiggerThanAControl() {
+        FxThread.runAndWait(() -> {
+            long control  = retainedPerInstance(() -> new Control() {}, false);
+            long selector = retainedPerInstance(AnchorSelector::new, false);
+            assertTrue("AnchorSelector: " + selector + " B, Control: " + control + " B", selector - control <= UNSHOWN_OVERHEAD_BUDGET);
+        });
+    }
+
+    @Test public void imageModeIsCompact() {
+        FxThread.runAndWait(() -> {
+            long selector = retainedPerInstance(() -> new AnchorSelector(RenderMode.IMAGE), true);
+            assertTrue("AnchorSelector: " + selector + " B", selector <= IMAGE_BUDGET);
+        });
+    }
+
+    @Test public void nodesModeStaysWithinBudget() {
+        FxThread.runAndWait(() -> {
+            long selector = retainedPerInstance(() -> new AnchorSelector(RenderMode.NODES), true);
+            assertTrue("AnchorSelector: " + selector + " B", selector <= NODES_BUDGET);
+        });
+    }
+
+
+    private long retainedPerInstance(final Supplier<? extends Node> FACTORY, final boolean SHOWN) {
+        // Every batch gets its own cached images, a shared image would link both batches by the listeners of their image views
+        AnchorImageCache.clear();
+        Object[] instances        = create(FACTORY, SHOWN, INSTANCES);
+        AnchorImageCache.clear();
+        Object[] doubledInstances = create(FACTORY, SHOWN, 2 * INSTANCES);
+        // Both graphs are parsed after all nodes were created, so the shared objects have the same size in both of them
+        return (graphSize(doubledInstances) - graphSize(instances)) / INSTANCES;
+    }
+
+    // Returns the root of the scene followed by the created nodes
+    private Object[] create(final Supplier<? extends Node> FACTORY, final boolean SHOWN, final int COUNT) {
+        Pane     root    = new Pane();
+        Object[] objects = new Object[COUNT + 1];
+        new Scene(root, 800, 600);
+        objects[0] = root;
+        for (int i = 1 ; i <= COUNT ; i++) {
+            Node node = FACTORY.get();
+            if (SHOWN) { root.getChildren().add(node); }
+            objects[i] = node;
+        }
+        root.applyCss();
+        root.layout();
+        return objects;
+    }
+
+    private long graphSize(final Object[] OBJECTS) {
+        GraphLayout layout = GraphLayout.parseInstance(OBJECTS);
+        // JOL also follows weak references, the graph must not reach the nodes of the other batch
+        assertEquals(OBJECTS.length - 1, layout.getClassCounts().count(OBJECTS[1].getClass()));
+        return layout.totalSize();
+    }
+}
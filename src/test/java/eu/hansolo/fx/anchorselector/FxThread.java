@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import com.sun.javafx.application.PlatformImpl;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Helpers for tests that need the FX application thread.
+ */
+final class FxThread {
+    private static final    long    DEFAULT_TIMEOUT_SECONDS = 10;
+    private static volatile boolean started;
+
+
+    private FxThread() {}
+
+
+    static synchronized void start() {
+        if (started) { return; }
+        CountDownLatch latch = new CountDownLatch(1);
+        PlatformImpl.startup(latch::countDown);
+        await(latch, DEFAULT_TIMEOUT_SECONDS);
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    static void runAndWait(final Runnable TASK) { runAndWait(TASK, DEFAULT_TIMEOUT_SECONDS); }
+    static void runAndWait(final Runnable TASK, final long TIMEOUT_SECONDS) {
+        start();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch             latch = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                TASK.run();
+            } catch (Throwable t) {
+                error.set(t);
+            } finally {
+                latch.countDown();
+            }
+        });
+        await(latch, TIMEOUT_SECONDS);
+        if (null != error.get()) { throw new AssertionError(error.get()); }
+    }
+
+    static void waitForPulses(final int PULSES) {
+        start();
+        CountDownLatch latch = new CountDownLatch(PULSES);
+        Platform.runLater(() -> new AnimationTimer() {
+            @Override public void handle(final long NOW) {
+                latch.countDown();
+                if (0 == latch.getCount()) { stop(); }
+            }
+        }.start());
+        await(latch, DEFAULT_TIMEOUT_SECONDS);
+    }
+
+    private static void await(final CountDownLatch LATCH, final long TIMEOUT_SECONDS) {
+        try {
+            if (!LATCH.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) { throw new AssertionError("Timeout while waiting for the FX application thread"); }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
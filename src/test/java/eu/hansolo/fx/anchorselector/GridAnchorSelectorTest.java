@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+
+public class GridAnchorSelectorTest {
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Test public void threeByThreeGridMatchesAnchorSelector() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector     anchorSelector = new AnchorSelector();
+            GridAnchorSelector gridSelector   = new GridAnchorSelector();
+            anchorSelector.resize(64, 64);
+            gridSelector.resize(64, 64);
+            anchorSelector.layout();
+            gridSelector.layout();
+
+            List<Bounds> expected = anchorBounds(anchorSelector);
+            List<Bounds> actual   = anchorBounds(gridSelector);
+            assertEquals(9, actual.size());
+            for (int i = 0 ; i < expected.size() ; i++) { assertEquals(expected.get(i), actual.get(i)); }
+        });
+    }
+
+    @Test public void selectionIsExposedAsRowAndColumn() {
+        GridAnchorSelector selector = new GridAnchorSelector(5, 9);
+        selector.select(3, 7);
+
+        assertEquals(3 * 9 + 7, selector.getSelectedIndex());
+        assertEquals(3, selector.getSelectedRow());
+        assertEquals(7, selector.getSelectedColumn());
+        assertNull(selector.getSelectedAnchor());
+    }
+
+    @Test public void posMapsToCornersEdgesAndCenter() {
+        GridAnchorSelector selector = new GridAnchorSelector(9, 9);
+
+        selector.select(Pos.BOTTOM_RIGHT);
+        assertEquals(8, selector.getSelectedRow());
+        assertEquals(8, selector.getSelectedColumn());
+
+        selector.select(Pos.CENTER_LEFT);
+        assertEquals(4, selector.getSelectedRow());
+        assertEquals(0, selector.getSelectedColumn());
+        assertEquals(Pos.CENTER_LEFT, selector.getSelectedAnchor());
+    }
+
+    @Test public void evenGridsHaveOnlyCornersAndTheEdgeCentersOfTheOddDimension() {
+        GridAnchorSelector square = new GridAnchorSelector(4, 4);
+        square.select(Pos.BOTTOM_LEFT);
+        assertEquals(3, square.getSelectedRow());
+        assertEquals(0, square.getSelectedColumn());
+        assertEquals(Pos.BOTTOM_LEFT, square.getSelectedAnchor());
+        square.select(1, 1);
+        assertNull(square.getSelectedAnchor());
+        square.select(2, 2);
+        assertNull(square.getSelectedAnchor());
+
+        GridAnchorSelector wide = new GridAnchorSelector(3, 4);
+        wide.select(Pos.CENTER_RIGHT);
+        assertEquals(1, wide.getSelectedRow());
+        assertEquals(3, wide.getSelectedColumn());
+        assertEquals(Pos.CENTER_RIGHT, wide.getSelectedAnchor());
+        wide.select(0, 1);
+        assertNull(wide.getSelectedAnchor());
+    }
+
+    @Test public void centerPositionsAreRejectedOnEvenGrids() {
+        assertRejected(new GridAnchorSelector(2, 2), Pos.CENTER);
+        assertRejected(new GridAnchorSelector(4, 4), Pos.CENTER);
+        assertRejected(new GridAnchorSelector(4, 5), Pos.CENTER_LEFT);
+        assertRejected(new GridAnchorSelector(5, 4), Pos.TOP_CENTER);
+    }
+
+    @Test(expected = IllegalArgumentException.class) public void baselinePositionsAreRejected() {
+        new GridAnchorSelector(5, 5).select(Pos.BASELINE_CENTER);
+    }
+
+
+    private void assertRejected(final GridAnchorSelector SELECTOR, final Pos POS) {
+        try {
+            SELECTOR.select(POS);
+            fail(POS + " was selected on a " + SELECTOR.getRows() + "x" + SELECTOR.getColumns() + " grid");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, SELECTOR.getSelectedIndex());
+        }
+    }
+
+    private List<Bounds> anchorBounds(final Node SELECTOR) {
+        List<Bounds> bounds = new ArrayList<>();
+        for (Node node : SELECTOR.lookupAll(".anchor")) { bounds.add(node.getBoundsInParent()); }
+        bounds.sort((b1, b2) -> b1.getMinY() == b2.getMinY() ? Double.compare(b1.getMinX(), b2.getMinX()) : Double.compare(b1.getMinY(), b2.getMinY()));
+        return bounds;
+    }
+}
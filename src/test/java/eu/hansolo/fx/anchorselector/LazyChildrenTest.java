@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.ColorMode;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Shape;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class LazyChildrenTest {
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Test public void childrenAreCreatedByTheFirstLayout() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            assertTrue(selector.getChildrenUnmodifiable().isEmpty());
+
+            selector.resize(64, 64);
+            selector.layout();
+            assertEquals(9, selector.lookupAll(".anchor").size());
+        });
+    }
+
+    @Test public void stateChangedBeforeTheFirstLayoutIsApplied() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            selector.getModel().setSelectedAnchor(Pos.BOTTOM_RIGHT);
+            selector.setColorMode(ColorMode.DIRECT);
+            selector.setColors(Color.BLACK, Color.PURPLE, Color.YELLOW);
+            assertEquals(Pos.BOTTOM_RIGHT, selector.getSelectedAnchor());
+            assertTrue(selector.getChildrenUnmodifiable().isEmpty());
+
+            selector.resize(64, 64);
+            selector.layout();
+            for (Node node : selector.lookupAll(".anchor")) {
+                Anchor  anchor   = (Anchor) node;
+                boolean selected = Pos.BOTTOM_RIGHT == anchor.getPosition();
+                assertEquals(selected, anchor.isActive());
+                assertEquals(selected ? Color.YELLOW : Color.PURPLE, anchor.getFill());
+            }
+            assertEquals(Color.BLACK, ((Shape) selector.lookup(".background")).getFill());
+        });
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.RenderMode;
+import javafx.event.EventType;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class MouseInputTest {
+    private static final double SIZE = 90;
+    private static final double CELL = SIZE / 3;
+
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Test public void dragSelectFiresOnlyWhenTheCellChanges() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = createSelector(RenderMode.NODES);
+            List<Pos>      events   = new ArrayList<>();
+            selector.selectedAnchorProperty().addListener((o, ov, nv) -> events.add(nv));
+
+            fire(selector, MouseEvent.MOUSE_PRESSED, 5, 5);
+            for (int i = 0 ; i < 10 ; i++) { fire(selector, MouseEvent.MOUSE_DRAGGED, 5 + i, 5 + i); }
+            for (int i = 0 ; i < 10 ; i++) { fire(selector, MouseEvent.MOUSE_DRAGGED, CELL + 5 + i, 5); }
+            for (int i = 0 ; i < 10 ; i++) { fire(selector, MouseEvent.MOUSE_DRAGGED, CELL + 5 + i, CELL + 5 + i); }
+            fire(selector, MouseEvent.MOUSE_RELEASED, CELL + 10, CELL + 10);
+
+            assertEquals(2, events.size());
+            assertEquals(Pos.TOP_CENTER, events.get(0));
+            assertEquals(Pos.CENTER, events.get(1));
+        });
+    }
+
+    @Test public void hoverFollowsTheMouse() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = createSelector(RenderMode.NODES);
+
+            fire(selector, MouseEvent.MOUSE_MOVED, SIZE - 5, SIZE - 5);
+            assertEquals(1, countHovered(selector));
+            assertTrue(anchor(selector, Pos.BOTTOM_RIGHT).isHover());
+
+            fire(selector, MouseEvent.MOUSE_MOVED, 5, SIZE - 5);
+            assertEquals(1, countHovered(selector));
+            assertTrue(anchor(selector, Pos.BOTTOM_LEFT).isHover());
+
+            fire(selector, MouseEvent.MOUSE_EXITED, SIZE + 5, SIZE + 5);
+            assertEquals(0, countHovered(selector));
+            assertEquals(Pos.TOP_LEFT, selector.getSelectedAnchor());
+        });
+    }
+
+    @Test public void canvasModeSelectsByCell() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = createSelector(RenderMode.CANVAS);
+
+            fire(selector, MouseEvent.MOUSE_PRESSED, SIZE - 5, CELL + 5);
+            assertEquals(Pos.CENTER_RIGHT, selector.getSelectedAnchor());
+
+            fire(selector, MouseEvent.MOUSE_PRESSED, SIZE + 5, SIZE + 5);
+            assertEquals(Pos.CENTER_RIGHT, selector.getSelectedAnchor());
+        });
+    }
+
+
+    private AnchorSelector createSelector(final RenderMode RENDER_MODE) {
+        AnchorSelector selector = new AnchorSelector(RENDER_MODE);
+        selector.resize(SIZE, SIZE);
+        selector.layout();
+        return selector;
+    }
+
+    private Anchor anchor(final AnchorSelector SELECTOR, final Pos POS) {
+        for (Node node : SELECTOR.lookupAll(".anchor")) {
+            if (POS == ((Anchor) node).getPosition()) { return (Anchor) node; }
+        }
+        throw new IllegalArgumentException("No anchor for " + POS);
+    }
+
+    private int countHovered(final AnchorSelector SELECTOR) {
+        int hovered = 0;
+        for (Node node : SELECTOR.lookupAll(".anchor")) {
+            if (node.isHover()) { hovered++; }
+        }
+        return hovered;
+    }
+
+    private void fire(final AnchorSelector SELECTOR, final EventType<MouseEvent> TYPE, final double X, final double Y) {
+        Node container = SELECTOR.getChildrenUnmodifiable().get(0);
+        container.fireEvent(new MouseEvent(TYPE, X, Y, X, Y, MouseButton.PRIMARY, 1, false, false, false, false,
+                                           MouseEvent.MOUSE_DRAGGED == TYPE || MouseEvent.MOUSE_PRESSED == TYPE, false, false,
+                                           false, false, false, null));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.SelectionMode;
+import javafx.event.EventType;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class MultiSelectionTest {
+    private static final double SIZE = 90;
+    private static final double CELL = SIZE / 3;
+
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Test public void toggleSelectAllAndClearAreBitOperations() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector      = new AnchorSelector();
+            List<Integer>  notifications = new ArrayList<>();
+            selector.selectedAnchorsProperty().addListener((o, ov, nv) -> notifications.add(nv.intValue()));
+
+            selector.toggleAnchor(Pos.TOP_CENTER);
+            selector.toggleAnchor(Pos.BOTTOM_CENTER);
+            assertEquals(AnchorMask.of(Pos.TOP_CENTER, Pos.BOTTOM_CENTER), selector.getSelectedAnchors());
+            assertTrue(selector.isAnchorSelected(Pos.BOTTOM_CENTER));
+
+            selector.toggleAnchor(Pos.TOP_CENTER);
+            assertFalse(selector.isAnchorSelected(Pos.TOP_CENTER));
+
+            selector.selectAllAnchors();
+            selector.selectAllAnchors();
+            assertEquals(AnchorMask.ALL, selector.getSelectedAnchors());
+            selector.clearSelectedAnchors();
+            assertEquals(AnchorMask.NONE, selector.getSelectedAnchors());
+
+            assertEquals(5, notifications.size());
+            // The single selection is independent of the selected anchors
+            assertEquals(Pos.TOP_LEFT, selector.getSelectedAnchor());
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class) public void masksWithOtherBitsAreRejected() {
+        AtomicReference<AnchorSelector> selector = new AtomicReference<>();
+        FxThread.runAndWait(() -> selector.set(new AnchorSelector()));
+        selector.get().setSelectedAnchors(1 << 9);
+    }
+
+    @Test public void onlyTheChangedAnchorsAreUpdated() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = createSelector();
+            selector.setSelectionMode(SelectionMode.MULTIPLE);
+            selector.layout();
+            int[] changes = new int[Anchor.POSITIONS.length];
+            for (int i = 0 ; i < changes.length ; i++) {
+                final int index = i;
+                anchor(selector, Anchor.POSITIONS[i]).activeProperty().addListener(o -> changes[index]++);
+            }
+
+            selector.setSelectedAnchors(AnchorMask.of(Pos.TOP_CENTER, Pos.CENTER_LEFT, Pos.CENTER_RIGHT, Pos.BOTTOM_CENTER));
+            selector.layout();
+            assertEquals("[0, 1, 0, 1, 0, 1, 0, 1, 0]", Arrays.toString(changes));
+            for (Pos pos : Anchor.POSITIONS) { assertEquals(selector.isAnchorSelected(pos), anchor(selector, pos).isActive()); }
+
+            selector.selectAllAnchors();
+            selector.layout();
+            assertEquals("[1, 1, 1, 1, 1, 1, 1, 1, 1]", Arrays.toString(changes));
+
+            selector.setSelectionMode(SelectionMode.SINGLE);
+            assertEquals("[1, 2, 2, 2, 2, 2, 2, 2, 2]", Arrays.toString(changes));
+            assertTrue(anchor(selector, Pos.TOP_LEFT).isActive());
+        });
+    }
+
+    @Test public void clickTogglesAndDragSetsTheState() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = createSelector();
+            selector.setSelectionMode(SelectionMode.MULTIPLE);
+
+            fire(selector, MouseEvent.MOUSE_PRESSED, 5, 5);
+            fire(selector, MouseEvent.MOUSE_DRAGGED, CELL + 5, 5);
+            fire(selector, MouseEvent.MOUSE_DRAGGED, 2 * CELL + 5, 5);
+            assertEquals(AnchorMask.of(Pos.TOP_LEFT, Pos.TOP_CENTER, Pos.TOP_RIGHT), selector.getSelectedAnchors());
+
+            // Starting on a selected anchor deselects while dragging
+            fire(selector, MouseEvent.MOUSE_PRESSED, CELL + 5, 5);
+            fire(selector, MouseEvent.MOUSE_DRAGGED, CELL + 5, CELL + 5);
+            assertEquals(AnchorMask.of(Pos.TOP_LEFT, Pos.TOP_RIGHT), selector.getSelectedAnchors());
+            assertEquals(Pos.TOP_LEFT, selector.getSelectedAnchor());
+        });
+    }
+
+    @Test public void masksCanBeIteratedInOrder() {
+        int       mask      = AnchorMask.of(Pos.BOTTOM_RIGHT, Pos.TOP_CENTER, Pos.CENTER);
+        List<Pos> positions = new ArrayList<>();
+        for (int bits = mask ; bits != AnchorMask.NONE ; bits = AnchorMask.withoutFirst(bits)) { positions.add(AnchorMask.first(bits)); }
+        assertEquals(3, AnchorMask.size(mask));
+        assertEquals("[TOP_CENTER, CENTER, BOTTOM_RIGHT]", positions.toString());
+        assertNull(AnchorMask.first(AnchorMask.NONE));
+    }
+
+
+    private AnchorSelector createSelector() {
+        AnchorSelector selector = new AnchorSelector();
+        selector.resize(SIZE, SIZE);
+        selector.layout();
+        return selector;
+    }
+
+    private Anchor anchor(final AnchorSelector SELECTOR, final Pos POS) {
+        for (Node node : SELECTOR.lookupAll(".anchor")) {
+            if (POS == ((Anchor) node).getPosition()) { return (Anchor) node; }
+        }
+        throw new IllegalArgumentException("No anchor for " + POS);
+    }
+
+    private void fire(final AnchorSelector SELECTOR, final EventType<MouseEvent> TYPE, final double X, final double Y) {
+        SELECTOR.getChildrenUnmodifiable().get(0).fireEvent(new MouseEvent(TYPE, X, Y, X, Y, MouseButton.PRIMARY, 1, false, false, false, false,
+                                                                           true, false, false, false, false, false, null));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.RenderMode;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.Stage;
+
+import java.util.Locale;
+
+
+/**
+ * Compares the node count and the time of a pulse (css, layout and
+ * rendering) for both render modes of the AnchorSelector.
+ * Run it with -Dselectors=500 -Dpulses=50 to change the workload.
+ */
+public class RenderModeComparison extends Application {
+    private static final int SELECTORS = Integer.getInteger("selectors", 500);
+    private static final int PULSES    = Integer.getInteger("pulses", 50);
+
+
+    @Override public void start(Stage stage) {
+        System.out.println(String.format(Locale.US, "%-8s %10s %10s %16s", "Mode", "Selectors", "Nodes", "Pulse [ms]"));
+        for (RenderMode renderMode : RenderMode.values()) {
+            measure(stage, renderMode);
+        }
+        Platform.exit();
+    }
+
+    private void measure(final Stage STAGE, final RenderMode RENDER_MODE) {
+        FlowPane         pane      = new FlowPane();
+        AnchorSelector[] selectors = new AnchorSelector[SELECTORS];
+        for (int i = 0 ; i < SELECTORS ; i++) {
+            selectors[i] = new AnchorSelector(RENDER_MODE);
+            pane.getChildren().add(selectors[i]);
+        }
+        STAGE.setScene(new Scene(pane, 1280, 1024));
+        STAGE.show();
+        pulse(pane);
+
+        // Warm up
+        for (int i = 0 ; i < PULSES ; i++) { pulse(resize(pane, selectors, i)); }
+
+        long start = System.nanoTime();
+        for (int i = 0 ; i < PULSES ; i++) { pulse(resize(pane, selectors, i)); }
+        double pulseMillis = (System.nanoTime() - start) / 1_000_000.0 / PULSES;
+
+        System.out.println(String.format(Locale.US, "%-8s %10d %10d %16.3f", RENDER_MODE, SELECTORS, countNodes(pane), pulseMillis));
+    }
+
+    private Parent resize(final Parent ROOT, final AnchorSelector[] SELECTORS, final int PULSE) {
+        double size = PULSE % 2 == 0 ? 48 : 64;
+        for (AnchorSelector selector : SELECTORS) { selector.setPrefSize(size, size); }
+        return ROOT;
+    }
+
+    private void pulse(final Parent ROOT) {
+        ROOT.applyCss();
+        ROOT.layout();
+        ROOT.snapshot(null, null);
+    }
+
+    private int countNodes(final Node NODE) {
+        int count = 1;
+        if (NODE instanceof Parent) {
+            for (Node child : ((Parent) NODE).getChildrenUnmodifiable()) { count += countNodes(child); }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.collections.SetChangeListener;
+import javafx.css.PseudoClass;
+import javafx.geometry.Bounds;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Counts the css (pseudo class) and geometry invalidations that are
+ * caused by a selection change.
+ */
+public class SelectionInvalidationTest {
+    private static final PseudoClass ACTIVE = PseudoClass.getPseudoClass("active");
+    private              AnchorSelector selector;
+    private              Set<Anchor>    pseudoClassChanges;
+    private              Set<Anchor>    geometryChanges;
+    private              int            selectionEvents;
+
+
+    @BeforeClass public static void startToolkit() { FxThread.start(); }
+
+    @Before public void setup() {
+        FxThread.runAndWait(() -> {
+            selector = new AnchorSelector();
+            selector.resize(64, 64);
+            selector.layout();
+
+            pseudoClassChanges = new HashSet<>();
+            geometryChanges    = new HashSet<>();
+            for (Node node : selector.lookupAll(".anchor")) {
+                Anchor anchor = (Anchor) node;
+                anchor.getPseudoClassStates().addListener((SetChangeListener<PseudoClass>) c -> {
+                    if (ACTIVE == c.getElementAdded() || ACTIVE == c.getElementRemoved()) { pseudoClassChanges.add(anchor); }
+                });
+                anchor.widthProperty().addListener(o -> geometryChanges.add(anchor));
+                anchor.heightProperty().addListener(o -> geometryChanges.add(anchor));
+                anchor.layoutXProperty().addListener(o -> geometryChanges.add(anchor));
+                anchor.layoutYProperty().addListener(o -> geometryChanges.add(anchor));
+            }
+            selector.selectedAnchorProperty().addListener(o -> selectionEvents++);
+        });
+    }
+
+    @Test public void selectionChangeTouchesOnlyTwoAnchors() {
+        FxThread.runAndWait(() -> {
+            press(Pos.BOTTOM_RIGHT);
+            selector.layout();
+
+            assertEquals(Pos.BOTTOM_RIGHT, selector.getSelectedAnchor());
+            assertEquals(1, selectionEvents);
+            assertEquals(2, pseudoClassChanges.size());
+            assertEquals(2, geometryChanges.size());
+            assertTrue(geometryChanges.contains(anchor(Pos.TOP_LEFT)));
+            assertTrue(geometryChanges.contains(anchor(Pos.BOTTOM_RIGHT)));
+        });
+    }
+
+    @Test public void selectingTheSelectedAnchorIsANoOp() {
+        FxThread.runAndWait(() -> {
+            press(Pos.TOP_LEFT);
+            selector.layout();
+
+            assertEquals(Pos.TOP_LEFT, selector.getSelectedAnchor());
+            assertEquals(0, selectionEvents);
+            assertEquals(0, pseudoClassChanges.size());
+            assertEquals(0, geometryChanges.size());
+        });
+    }
+
+    @Test public void severalSelectionsInOnePulseAreLaidOutOnce() {
+        FxThread.runAndWait(() -> {
+            press(Pos.TOP_CENTER);
+            press(Pos.CENTER);
+            press(Pos.BOTTOM_LEFT);
+            geometryChanges.clear();
+            selector.layout();
+
+            assertEquals(Pos.BOTTOM_LEFT, selector.getSelectedAnchor());
+            assertTrue(geometryChanges.size() <= 2);
+            assertTrue(geometryChanges.contains(anchor(Pos.BOTTOM_LEFT)));
+            assertEquals(anchor(Pos.BOTTOM_LEFT).getWidth(), 64 * 0.15625, 0.0001);
+            assertEquals(anchor(Pos.TOP_CENTER).getWidth(), 64 * 0.125, 0.0001);
+            assertEquals(anchor(Pos.CENTER).getWidth(), 64 * 0.125, 0.0001);
+            assertEquals(anchor(Pos.TOP_LEFT).getWidth(), 64 * 0.125, 0.0001);
+        });
+    }
+
+
+    private Anchor anchor(final Pos POS) {
+        for (Node node : selector.lookupAll(".anchor")) {
+            if (POS == ((Anchor) node).getPosition()) { return (Anchor) node; }
+        }
+        throw new IllegalArgumentException("No anchor for " + POS);
+    }
+
+    private void press(final Pos POS) {
+        Anchor anchor = anchor(POS);
+        Bounds bounds = anchor.localToScene(anchor.getBoundsInLocal());
+        double x      = bounds.getMinX() + bounds.getWidth() * 0.5;
+        double y      = bounds.getMinY() + bounds.getHeight() * 0.5;
+        anchor.fireEvent(new MouseEvent(MouseEvent.MOUSE_PRESSED, x, y, x, y, MouseButton.PRIMARY, 1,
+                                        false, false, false, false, true, false, false, false, false, false, null));
+    }
+}
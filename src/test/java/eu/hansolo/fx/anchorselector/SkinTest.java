@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.StackPane;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class SkinTest {
+
+    @Before public void setup() { FxThread.start(); }
+
+    @Test public void skinCanBeSetByCss() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            new Scene(new StackPane(selector));
+            selector.setStyle("-fx-skin: \"eu.hansolo.fx.anchorselector.ImageAnchorSelectorSkin\";");
+            selector.applyCss();
+            assertTrue(selector.getSkin() instanceof ImageAnchorSelectorSkin);
+        });
+    }
+
+    @Test public void replacedSkinsDoNotReactAnymore() {
+        FxThread.runAndWait(() -> {
+            AnchorSelector selector = new AnchorSelector();
+            selector.setAnimated(true);
+            selector.resize(90, 90);
+            selector.layout();
+            Node oldContent = selector.getChildrenUnmodifiable().get(0);
+            press(oldContent, 45, 45);
+            assertEquals(Pos.CENTER, selector.getSelectedAnchor());
+            assertEquals(1, SelectionAnimator.getActiveCount());
+
+            for (int i = 0 ; i < 5 ; i++) {
+                selector.setSkin(new CanvasAnchorSelectorSkin(selector));
+                selector.layout();
+                selector.setSkin(new AnchorSelectorSkin(selector));
+                selector.layout();
+            }
+            selector.setSkin(new CanvasAnchorSelectorSkin(selector));
+            selector.layout();
+            assertEquals(0, SelectionAnimator.getActiveCount());
+            assertEquals(1, selector.getChildrenUnmodifiable().size());
+            assertTrue(selector.getChildrenUnmodifiable().get(0) instanceof Canvas);
+
+            press(oldContent, 5, 5);
+            assertEquals(Pos.CENTER, selector.getSelectedAnchor());
+            press(selector.getChildrenUnmodifiable().get(0), 85, 85);
+            assertEquals(Pos.BOTTOM_RIGHT, selector.getSelectedAnchor());
+            assertEquals(Pos.BOTTOM_RIGHT, selector.getModel().getSelectedAnchor());
+        });
+    }
+
+
+    private void press(final Node NODE, final double X, final double Y) {
+        NODE.fireEvent(new MouseEvent(MouseEvent.MOUSE_PRESSED, X, Y, X, Y, MouseButton.PRIMARY, 1, false, false, false, false,
+                                      true, false, false, false, false, false, null));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Creates, lays out, resizes, restyles and randomly selects many
+ * AnchorSelectors in one scene. The time of a pulse is the time of the
+ * changes plus the CSS and layout pass that a pulse does for them. The
+ * thresholds can be set with system properties, e.g.
+ * gradlew test -Pstress.selectors=20000 -Pstress.maxSelectionPulseMillis=200
+ */
+public class StressTest {
+    private static final int     SELECTORS                  = Integer.getInteger("stress.selectors", 10_000);
+    private static final int     ROUNDS                     = Integer.getInteger("stress.rounds", 5);
+    private static final long    TIMEOUT_SECONDS            = 600;
+    private static final long    MAX_FIRST_PULSE_MILLIS     = Long.getLong("stress.maxFirstPulseMillis", 20_000);
+    private static final long    MAX_RESIZE_PULSE_MILLIS    = Long.getLong("stress.maxResizePulseMillis", 5_000);
+    private static final long    MAX_STYLE_PULSE_MILLIS     = Long.getLong("stress.maxStylePulseMillis", 10_000);
+    private static final long    MAX_SELECTION_PULSE_MILLIS = Long.getLong("stress.maxSelectionPulseMillis", 2_000);
+    private static final long    MAX_HEAP_PER_SELECTOR      = Long.getLong("stress.maxHeapPerSelector", 48 * 1024);
+    private static final long    MAX_LEAK_PER_SELECTOR      = Long.getLong("stress.maxLeakPerSelector", 256);
+    private static final Color[] ANCHOR_COLORS              = { Color.PURPLE, Color.ORANGE, Color.TEAL };
+    private              Pane    root;
+
+
+    @Before public void setup() {
+        FxThread.runAndWait(() -> {
+            root = new Pane();
+            new Scene(root, 800, 600);
+        });
+    }
+
+    @Test public void pulsesAndHeapStayWithinThresholds() {
+        List<AnchorSelector> selectors = new ArrayList<>(SELECTORS);
+        Random               random    = new Random(42);
+        long                 before    = usedHeap();
+
+        long firstPulse = pulse(() -> {
+            for (int i = 0 ; i < SELECTORS ; i++) {
+                AnchorSelector selector = new AnchorSelector();
+                selector.relocate((i % 100) * 8, (i / 100) * 8);
+                selectors.add(selector);
+            }
+            root.getChildren().setAll(selectors);
+        });
+        report("first pulse", firstPulse, firstPulse);
+        assertTrue("First pulse took " + firstPulse + " ms", firstPulse <= MAX_FIRST_PULSE_MILLIS);
+
+        long[] resize = rounds(round -> {
+            double size = 0 == round % 2 ? 48 : 64;
+            for (AnchorSelector selector : selectors) { selector.setPrefSize(size, size); }
+        });
+        assertPulses("Resize", resize, MAX_RESIZE_PULSE_MILLIS);
+
+        long[] style = rounds(round -> {
+            Color anchorColor = ANCHOR_COLORS[round % ANCHOR_COLORS.length];
+            for (AnchorSelector selector : selectors) { selector.setColors(Color.BLACK, anchorColor, Color.WHITE); }
+        });
+        assertPulses("Style", style, MAX_STYLE_PULSE_MILLIS);
+
+        long[] selection = rounds(round -> {
+            for (AnchorSelector selector : selectors) { selector.getModel().setSelectedAnchor(Anchor.POSITIONS[random.nextInt(Anchor.POSITIONS.length)]); }
+        });
+        assertPulses("Selection", selection, MAX_SELECTION_PULSE_MILLIS);
+
+        long heapPerSelector = (usedHeap() - before) / SELECTORS;
+        System.out.printf("%d selectors: %d B retained per selector%n", SELECTORS, heapPerSelector);
+        assertTrue("Retained " + heapPerSelector + " B per selector", heapPerSelector <= MAX_HEAP_PER_SELECTOR);
+        FxThread.runAndWait(() -> root.getChildren().clear(), TIMEOUT_SECONDS);
+    }
+
+    @Test public void disposedSelectorsAreCollected() {
+        List<WeakReference<AnchorSelector>> references = new ArrayList<>(SELECTORS);
+        // Some selectors share a model, their listeners have to be removed by dispose()
+        AnchorSelectorModel sharedModel = new AnchorSelectorModel();
+        long                before      = usedHeap();
+
+        FxThread.runAndWait(() -> {
+            for (int i = 0 ; i < SELECTORS ; i++) {
+                AnchorSelector selector = 0 == i % 100 ? new AnchorSelector(sharedModel) : new AnchorSelector();
+                selector.setAnimated(0 == i % 10);
+                selector.subscribe(Runnable::run, pos -> {});
+                references.add(new WeakReference<>(selector));
+                root.getChildren().add(selector);
+            }
+            root.applyCss();
+            root.layout();
+            sharedModel.setSelectedAnchor(Pos.CENTER);
+            for (WeakReference<AnchorSelector> reference : references) { reference.get().getModel().setSelectedAnchor(Pos.BOTTOM_RIGHT); }
+            root.layout();
+        }, TIMEOUT_SECONDS);
+        FxThread.waitForPulses(2);
+
+        FxThread.runAndWait(() -> {
+            for (WeakReference<AnchorSelector> reference : references) { reference.get().dispose(); }
+            root.getChildren().clear();
+        }, TIMEOUT_SECONDS);
+        // Animations and pending tasks of the disposed selectors are given the time to finish
+        FxThread.waitForPulses(20);
+
+        long leakPerSelector = (usedHeap() - before) / SELECTORS;
+        int  alive           = 0;
+        for (WeakReference<AnchorSelector> reference : references) {
+            if (null != reference.get()) { alive++; }
+        }
+        System.out.printf("%d disposed selectors: %d alive, %d B left per selector%n", SELECTORS, alive, leakPerSelector);
+        assertEquals(0, alive);
+        assertEquals(0, sharedModel.getListenerCount());
+        assertEquals(0, SelectionAnimator.getActiveCount());
+        assertTrue("Left " + leakPerSelector + " B per selector", leakPerSelector <= MAX_LEAK_PER_SELECTOR);
+    }
+
+
+    /**
+     * Returns the time of the given changes plus the CSS and layout pass in
+     * milliseconds.
+     */
+    private long pulse(final Runnable CHANGES) {
+        long[] millis = new long[1];
+        FxThread.runAndWait(() -> {
+            long start = System.nanoTime();
+            CHANGES.run();
+            root.applyCss();
+            root.layout();
+            millis[0] = (System.nanoTime() - start) / 1_000_000;
+        }, TIMEOUT_SECONDS);
+        return millis[0];
+    }
+
+    private long[] rounds(final Round ROUND) {
+        long[] millis = new long[ROUNDS];
+        for (int i = 0 ; i < ROUNDS ; i++) {
+            final int round = i;
+            millis[i] = pulse(() -> ROUND.run(round));
+        }
+        return millis;
+    }
+
+    private void assertPulses(final String NAME, final long[] MILLIS, final long MAX_MILLIS) {
+        long max = 0;
+        long sum = 0;
+        for (long millis : MILLIS) {
+            max  = Math.max(max, millis);
+            sum += millis;
+        }
+        report(NAME.toLowerCase() + " pulse", sum / MILLIS.length, max);
+        assertTrue(NAME + " pulse took " + max + " ms", max <= MAX_MILLIS);
+    }
+
+    private static void report(final String NAME, final long AVERAGE_MILLIS, final long MAX_MILLIS) {
+        System.out.printf("%d selectors, %s: %d ms average, %d ms max%n", SELECTORS, NAME, AVERAGE_MILLIS, MAX_MILLIS);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0 ; i < 5 ; i++) {
+            System.gc();
+            try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+
+    @FunctionalInterface private interface Round {
+        void run(int round);
+    }
+}
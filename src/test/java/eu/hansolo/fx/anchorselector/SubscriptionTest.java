@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.anchorselector;
+
+import eu.hansolo.fx.anchorselector.AnchorSelector.Subscription;
+import javafx.geometry.Pos;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class SubscriptionTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+
+    @Before public void startFx() {
+        // Selections made outside of the FX application thread are applied to the selector on the next pulse
+        FxThread.start();
+    }
+
+    @After public void shutdown() { executor.shutdownNow(); }
+
+    @Test public void slowSubscribersOnlySeeTheLatestSelection() throws InterruptedException {
+        AnchorSelector selector  = new AnchorSelector();
+        List<Pos>      delivered = new CopyOnWriteArrayList<>();
+        CountDownLatch busy      = new CountDownLatch(1);
+        CountDownLatch release   = new CountDownLatch(1);
+        selector.subscribe(executor, pos -> {
+            delivered.add(pos);
+            busy.countDown();
+            await(release);
+        });
+
+        selector.getModel().setSelectedAnchor(Pos.TOP_CENTER);
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+        for (int i = 0 ; i < 1000 ; i++) { selector.getModel().setSelectedAnchor(Anchor.POSITIONS[i % 9]); }
+        selector.getModel().setSelectedAnchor(Pos.BOTTOM_RIGHT);
+        release.countDown();
+        awaitSize(delivered, 2);
+        drain();
+
+        assertEquals(2, delivered.size());
+        assertEquals(Pos.TOP_CENTER, delivered.get(0));
+        assertEquals(Pos.BOTTOM_RIGHT, delivered.get(1));
+    }
+
+    @Test public void disposeEndsAllSubscriptions() throws InterruptedException {
+        AnchorSelector selector     = new AnchorSelector();
+        List<Pos>      delivered    = new CopyOnWriteArrayList<>();
+        Subscription   subscription = selector.subscribe(executor, delivered::add);
+
+        selector.getModel().setSelectedAnchor(Pos.CENTER);
+        drain();
+        assertEquals(1, delivered.size());
+
+        selector.dispose();
+        assertFalse(subscription.isSubscribed());
+        selector.getModel().setSelectedAnchor(Pos.BOTTOM_LEFT);
+        drain();
+        assertEquals(1, delivered.size());
+    }
+
+    @Test public void aRejectingExecutorEndsTheSubscription() {
+        AnchorSelector selector     = new AnchorSelector();
+        Subscription   subscription = selector.subscribe(executor, pos -> {});
+        executor.shutdown();
+
+        selector.getModel().setSelectedAnchor(Pos.CENTER);
+        assertFalse(subscription.isSubscribed());
+    }
+
+
+    private void awaitSize(final List<Pos> LIST, final int SIZE) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (LIST.size() < SIZE && System.currentTimeMillis() < deadline) { Thread.sleep(10); }
+    }
+
+    private void drain() throws InterruptedException {
+        // The executor is single threaded, a task submitted after the deliveries runs after them
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(final CountDownLatch LATCH) {
+        try {
+            LATCH.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -57,9 +57,7 @@ public class Test extends Application {
         stage.setScene(scene);
         stage.show();
 
-        anchorSelector.setAnchorColor(Color.PURPLE);
-        anchorSelector.setSelectedAnchorColor(Color.YELLOW);
-        anchorSelector.setBackgroundColor(Color.rgb(180, 180, 180, 0.4));
+        anchorSelector.setColors(Color.rgb(180, 180, 180, 0.4), Color.PURPLE, Color.YELLOW);
 
         //anchorSelector.setStyle("-anchor-color: rgb(0, 0, 255);");
     }